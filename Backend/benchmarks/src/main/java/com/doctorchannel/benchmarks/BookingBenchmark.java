@@ -0,0 +1,117 @@
+package com.doctorchannel.benchmarks;
+
+import com.doctorchannel.exception.SlotUnavailableException;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// AppointmentService.isSlotAvailable and createAppointment against a pre-booked calendar
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({"100"})
+    int doctors;
+
+    @Param({"20"})
+    int days;
+
+    @Param({"0.6"})
+    double fill;
+
+    private Fixtures fixtures;
+    private AppointmentService appointmentService;
+    private String[] probeDoctors;
+    private LocalDateTime[] probeTimes;
+    private LocalDateTime[] offScheduleTimes;
+    private List<Appointment> taken;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        fixtures = new Fixtures();
+        fixtures.addDoctors(doctors, random);
+        fixtures.addAppointments(days, fill, random);
+        appointmentService = fixtures.appointmentService(fixtures.slotAvailabilityIndex(days * 7 / 5 + 2));
+
+        List<Doctor> doctorList = new ArrayList<>(fixtures.doctors.rows());
+        List<LocalDate> dates = Fixtures.workingDays(days);
+        probeDoctors = new String[PROBES];
+        probeTimes = new LocalDateTime[PROBES];
+        offScheduleTimes = new LocalDateTime[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeDoctors[i] = doctorList.get(random.nextInt(doctorList.size())).getId();
+            LocalDate date = dates.get(random.nextInt(dates.size()));
+            probeTimes[i] = Fixtures.slotStart(date, random.nextInt(Fixtures.SLOTS_PER_DAY));
+            // Outside working hours: the index cannot answer and the service queries the repository
+            offScheduleTimes[i] = date.atTime(7, random.nextInt(60));
+        }
+
+        taken = new ArrayList<>();
+        for (Appointment appointment : fixtures.appointments.rows()) {
+            if (appointment.getSlotStart() != null) {
+                taken.add(appointment);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isSlotAvailable() {
+        int i = next++ & (PROBES - 1);
+        return appointmentService.isSlotAvailable(probeDoctors[i], probeTimes[i]);
+    }
+
+    @Benchmark
+    public boolean isSlotAvailable_repositoryFallback() {
+        int i = next++ & (PROBES - 1);
+        return appointmentService.isSlotAvailable(probeDoctors[i], offScheduleTimes[i]);
+    }
+
+    // Book and release a slot far enough out that it is always free, keeping the calendar size constant
+    @Benchmark
+    public Appointment createAppointment() {
+        int i = next++ & (PROBES - 1);
+        Appointment appointment = Fixtures.appointment(probeDoctors[i], probeTimes[i].plusYears(1), "user" + i);
+        Appointment saved = appointmentService.createAppointment(appointment);
+        appointmentService.deleteAppointment(saved.getId());
+        return saved;
+    }
+
+    // Double booking rejected by the unique (doctor_id, slot_start) key
+    @Benchmark
+    public Object createAppointment_conflict() {
+        Appointment existing = taken.get(next++ % taken.size());
+        Appointment appointment = Fixtures.appointment(existing.getDoctorId(), existing.getAppointmentDateTime(), "late");
+        try {
+            return appointmentService.createAppointment(appointment);
+        } catch (SlotUnavailableException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.doctorchannel.benchmarks;
+
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.service.DoctorSearchIndex;
+import com.doctorchannel.service.DoctorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// DoctorService name/specialty/city search, through the trigram index and through the repository fallback.
+// The fallback runs against the in-memory store, so it measures the scan shape, not MongoDB latency.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoctorSearchBenchmark {
+
+    @Param({"1000", "10000"})
+    int doctors;
+
+    @Param({"an", "perera", "cardio"})
+    String query;
+
+    private DoctorService indexed;
+    private DoctorService fallback;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        fixtures.addDoctors(doctors, new Random(42));
+        indexed = fixtures.doctorService(fixtures.doctorSearchIndex(), null);
+        fallback = fixtures.doctorService(new DoctorSearchIndex(), null);
+    }
+
+    @Benchmark
+    public List<Doctor> searchByName() {
+        return indexed.searchDoctorsByName(query);
+    }
+
+    @Benchmark
+    public List<Doctor> searchBySpecialty() {
+        return indexed.searchDoctorsBySpecialty(query);
+    }
+
+    @Benchmark
+    public List<Doctor> searchByCity() {
+        return indexed.searchDoctorsByCity(query);
+    }
+
+    @Benchmark
+    public List<Doctor> searchByName_repositoryFallback() {
+        return fallback.searchDoctorsByName(query);
+    }
+}
@@ -0,0 +1,298 @@
+package com.doctorchannel.benchmarks;
+
+import com.doctorchannel.config.JwtConfig;
+import com.doctorchannel.config.SecurityConfig;
+import com.doctorchannel.controller.AuthController;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.model.User;
+import com.doctorchannel.repository.AppointmentRepository;
+import com.doctorchannel.repository.DoctorRepository;
+import com.doctorchannel.repository.UserRepository;
+import com.doctorchannel.service.AppointmentOutbox;
+import com.doctorchannel.service.AppointmentService;
+import com.doctorchannel.service.AppointmentStatsService;
+import com.doctorchannel.service.AuthService;
+import com.doctorchannel.service.BookingMetrics;
+import com.doctorchannel.service.DoctorSearchIndex;
+import com.doctorchannel.service.DoctorService;
+import com.doctorchannel.service.LoginRateLimiter;
+import com.doctorchannel.service.PasswordHashingService;
+import com.doctorchannel.service.SlotAvailabilityIndex;
+import com.doctorchannel.service.TokenRevocationList;
+import com.doctorchannel.service.TokenService;
+import com.doctorchannel.service.UserService;
+import com.doctorchannel.service.WaitlistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+
+// Deterministic sample data plus the production services wired by hand against in-memory repositories
+final class Fixtures {
+
+    static final String[] SPECIALTIES = {"Cardiologist", "Dermatologist", "Neurologist", "Pediatrician",
+            "Orthopedic Surgeon", "Psychiatrist", "General Physician", "ENT Specialist", "Gynecologist", "Oncologist"};
+    static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Jaffna", "Kalmunai", "Batticaloa",
+            "Trincomalee", "Negombo", "Kurunegala", "Anuradhapura"};
+    private static final String[] FIRST_NAMES = {"Ruwan", "Nimal", "Kavitha", "Tharindu", "Sanjeewa", "Priya",
+            "Ahamed", "Dilani", "Mohamed", "Shanthi", "Kasun", "Fathima", "Nuwan", "Anjali", "Suresh", "Thurga"};
+    private static final String[] LAST_NAMES = {"Perera", "Fernando", "Silva", "Jayasinghe", "Rajapaksa",
+            "Kumar", "Nazeer", "Wickramasinghe", "Bandara", "Sivakumar", "Rahman", "Gunawardena"};
+    private static final List<String> WEEKDAYS = Arrays.asList("Monday", "Tuesday", "Wednesday", "Thursday", "Friday");
+
+    static final LocalTime DAY_START = LocalTime.of(9, 0);
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 32; // 09:00 - 17:00
+
+    static final String PASSWORD = "benchmark-password";
+    static final int STRENGTH = 10;
+
+    final InMemoryStore<Doctor> doctors = new InMemoryStore<>(Doctor::getId, Doctor::setId);
+    final InMemoryStore<Appointment> appointments = new InMemoryStore<>(Appointment::getId, Appointment::setId)
+            .unique(a -> a.getSlotStart() == null ? null : a.getDoctorId() + "|" + a.getSlotStart())
+            .partitionBy(Appointment::getDoctorId);
+    final InMemoryStore<User> users = new InMemoryStore<>(User::getId, User::setId);
+
+    final DoctorRepository doctorRepository;
+    final AppointmentRepository appointmentRepository;
+    final UserRepository userRepository;
+
+    Fixtures() {
+        doctors.finder("findBySpecialtyContainingIgnoreCase", args -> containing(doctors, Doctor::getSpecialty, args[0]))
+                .finder("findByNameContainingIgnoreCase", args -> containing(doctors, Doctor::getName, args[0]))
+                .finder("findByCityContainingIgnoreCase", args -> containing(doctors, Doctor::getCity, args[0]))
+                .finder("findByIsActive", args -> InMemoryStore.matching(doctors.rows(),
+                        d -> Objects.equals(d.getIsActive(), args[0])));
+        appointments.finder("findByUserId", args -> InMemoryStore.matching(appointments.rows(),
+                        a -> Objects.equals(a.getUserId(), args[0])))
+                .finder("findByDoctorId", args -> new ArrayList<>(appointments.partition(args[0])))
+                .finder("findByStatus", args -> InMemoryStore.matching(appointments.rows(),
+                        a -> Objects.equals(a.getStatus(), args[0])))
+                .finder("findByDoctorIdAndAppointmentDateTimeBetween", args -> InMemoryStore.matching(appointments.partition(args[0]),
+                        a -> between(a.getAppointmentDateTime(), (LocalDateTime) args[1], (LocalDateTime) args[2])))
+                .finder("findByAppointmentDateTimeBetween", args -> InMemoryStore.matching(appointments.rows(),
+                        a -> between(a.getAppointmentDateTime(), (LocalDateTime) args[0], (LocalDateTime) args[1])));
+        users.finder("findByEmail", args -> users.rows().stream()
+                        .filter(u -> Objects.equals(u.getEmail(), args[0])).findFirst())
+                .finder("existsByEmail", args -> users.rows().stream()
+                        .anyMatch(u -> Objects.equals(u.getEmail(), args[0])))
+                .finder("replacePasswordHash", args -> users.rows().stream()
+                        .filter(u -> u.getId().equals(args[0]) && Objects.equals(u.getPassword(), args[1]))
+                        .peek(u -> u.setPassword((String) args[2]))
+                        .findFirst().isPresent());
+
+        doctorRepository = doctors.repository(DoctorRepository.class);
+        appointmentRepository = appointments.repository(AppointmentRepository.class);
+        userRepository = users.repository(UserRepository.class);
+    }
+
+    // ---- data ----
+
+    void addDoctors(int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setId(String.format("doc%05d", i));
+            doctor.setName("Dr. " + pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random));
+            doctor.setSpecialty(SPECIALTIES[i % SPECIALTIES.length]);
+            doctor.setCity(CITIES[random.nextInt(CITIES.length)]);
+            doctor.setEmail("doctor" + i + "@example.com");
+            doctor.setHospitalName(doctor.getCity() + " General Hospital");
+            doctor.setConsultationFee(1500.0 + random.nextInt(20) * 250);
+            doctor.setAvailableDays(WEEKDAYS);
+            doctor.setStartTime("09:00");
+            doctor.setEndTime("17:00");
+            doctor.setSlotDuration(SLOT_MINUTES);
+            doctor.setIsActive(true);
+            doctorRepository.insert(doctor);
+        }
+    }
+
+    // Books roughly fill * 100 percent of every doctor's slots over the next days
+    void addAppointments(int days, double fill, Random random) {
+        for (Doctor doctor : doctors.rows()) {
+            for (LocalDate date : workingDays(days)) {
+                for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                    if (random.nextDouble() < fill) {
+                        Appointment appointment = appointment(doctor.getId(), slotStart(date, slot), "user" + random.nextInt(1000));
+                        appointment.setStatus(random.nextInt(10) == 0 ? "CANCELLED" : "CONFIRMED");
+                        appointment.setSlotStart("CANCELLED".equals(appointment.getStatus()) ? null : appointment.getAppointmentDateTime());
+                        appointmentRepository.insert(appointment);
+                    }
+                }
+            }
+        }
+    }
+
+    void addUsers(int count, PasswordEncoder encoder) {
+        // Every user shares one hash; hashing thousands of passwords would dominate setup
+        String hash = encoder.encode(PASSWORD);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail("patient" + i + "@example.com");
+            user.setPassword(hash);
+            user.setFullName(pick(FIRST_NAMES, new Random(i)) + " " + pick(LAST_NAMES, new Random(i + 1L)));
+            user.setPhone("07700" + String.format("%05d", i));
+            user.setRole("USER");
+            user.setIsActive(true);
+            userRepository.insert(user);
+        }
+    }
+
+    static Appointment appointment(String doctorId, LocalDateTime dateTime, String userId) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctorId(doctorId);
+        appointment.setUserId(userId);
+        appointment.setPatientName("Patient " + userId);
+        appointment.setPatientEmail(userId + "@example.com");
+        appointment.setPatientPhone("0770000000");
+        appointment.setAppointmentDateTime(dateTime);
+        appointment.setSymptoms("Headache and mild fever for three days");
+        appointment.setPaymentOption("PAY_AT_VISIT");
+        appointment.setPaymentStatus("PENDING");
+        appointment.setCreatedAt(LocalDateTime.now());
+        appointment.setUpdatedAt(LocalDateTime.now());
+        return appointment;
+    }
+
+    static List<LocalDate> workingDays(int count) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = LocalDate.now().plusDays(1); dates.size() < count; date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    static LocalDateTime slotStart(LocalDate date, int slot) {
+        return date.atTime(DAY_START).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    // ---- services ----
+
+    SlotAvailabilityIndex slotAvailabilityIndex(int warmupDays) {
+        SlotAvailabilityIndex index = wire(new SlotAvailabilityIndex(), doctorRepository, appointmentRepository);
+        set(index, "warmupDays", warmupDays);
+        index.rebuild();
+        return index;
+    }
+
+    AppointmentService appointmentService(SlotAvailabilityIndex index) {
+        BookingMetrics bookingMetrics = wire(new BookingMetrics(), new SimpleMeterRegistry());
+        // Daily stats are a separate upsert to Mongo, outside what the booking benchmarks measure
+        AppointmentStatsService stats = new AppointmentStatsService() {
+            @Override
+            public void recordAll(Collection<Change> changes) {
+            }
+        };
+        // Left disabled: outbox events are one more insert, delivered off the request path
+        AppointmentOutbox outbox = new AppointmentOutbox();
+        // Also disabled; the benchmarks never free a slot
+        WaitlistService waitlist = new WaitlistService();
+        return wire(new AppointmentService(), appointmentRepository, index, bookingMetrics, stats, outbox, waitlist);
+    }
+
+    DoctorSearchIndex doctorSearchIndex() {
+        DoctorSearchIndex index = wire(new DoctorSearchIndex(), doctorRepository);
+        index.rebuild();
+        return index;
+    }
+
+    // Pass a search index that was never rebuilt to measure the repository fallback
+    DoctorService doctorService(DoctorSearchIndex searchIndex, SlotAvailabilityIndex slotIndex) {
+        return wire(new DoctorService(), doctorRepository, searchIndex, slotIndex);
+    }
+
+    static PasswordEncoder passwordEncoder() {
+        return SecurityConfig.passwordEncoder(STRENGTH);
+    }
+
+    AuthController authController(PasswordEncoder encoder) {
+        UserService userService = wire(new UserService(), userRepository);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingService hashing = wire(new PasswordHashingService(), encoder, meterRegistry);
+        set(hashing, "threads", 1);
+        set(hashing, "queueCapacity", 64);
+        set(hashing, "retryAfterSeconds", 1L);
+        hashing.init();
+        // Limits of 0 disable rate limiting; the benchmark logs in far faster than any real client
+        LoginRateLimiter rateLimiter = wire(new LoginRateLimiter(), meterRegistry);
+        set(rateLimiter, "window", "1m");
+        set(rateLimiter, "maxTrackedKeys", 1000L);
+        rateLimiter.init();
+        AuthService authService = wire(new AuthService(), userRepository, hashing);
+        JwtConfig jwtConfig = new JwtConfig();
+        SecretKey key = jwtConfig.jwtSigningKey("benchmark-signing-secret-of-at-least-32-bytes");
+        TokenService tokenService = wire(new TokenService(), jwtConfig.jwtEncoder(key), key,
+                new TokenRevocationList(), userRepository);
+        set(tokenService, "issuer", "doctor-channeling");
+        set(tokenService, "accessTokenTtl", "15m");
+        set(tokenService, "refreshTokenTtl", "7d");
+        tokenService.init();
+        return wire(new AuthController(), userService, authService, hashing, rateLimiter, tokenService);
+    }
+
+    // Sets every field whose type accepts one of the collaborators, the way @Autowired would
+    static <T> T wire(T target, Object... collaborators) {
+        for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                for (Object collaborator : collaborators) {
+                    if (field.getType().isInstance(collaborator)) {
+                        field.setAccessible(true);
+                        try {
+                            field.set(target, collaborator);
+                        } catch (IllegalAccessException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+            }
+        }
+        return target;
+    }
+
+    static void set(Object target, String fieldName, Object value) {
+        for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass());
+    }
+
+    private static List<Doctor> containing(InMemoryStore<Doctor> store,
+                                           Function<Doctor, String> field, Object needle) {
+        String lower = ((String) needle).toLowerCase(Locale.ROOT);
+        return InMemoryStore.matching(store.rows(),
+                d -> field.apply(d) != null && field.apply(d).toLowerCase(Locale.ROOT).contains(lower));
+    }
+
+    private static boolean between(LocalDateTime value, LocalDateTime start, LocalDateTime end) {
+        return value != null && value.isAfter(start) && value.isBefore(end);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,194 @@
+package com.doctorchannel.benchmarks;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Map-backed stand-in for a Spring Data Mongo repository. Only the CRUD calls and the
+// derived finders registered with finder() are implemented; anything else fails loudly
+// so a benchmark never silently measures a no-op.
+final class InMemoryStore<T> implements InvocationHandler {
+
+    private final Map<String, T> rows = new ConcurrentHashMap<>();
+    private final Map<Object, String> uniqueKeys = new ConcurrentHashMap<>();
+    private final Map<String, Object> keysById = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object[], Object>> finders = new HashMap<>();
+    private final Function<T, String> idGetter;
+    private final BiConsumer<T, String> idSetter;
+    private final Map<Object, Set<String>> partitions = new ConcurrentHashMap<>();
+    private Function<T, Object> uniqueKey = row -> null;
+    private Function<T, Object> partitionKey = row -> null;
+
+    InMemoryStore(Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+    }
+
+    // Mirrors a unique (partial) index: rows whose key is null are not constrained
+    InMemoryStore<T> unique(Function<T, Object> key) {
+        this.uniqueKey = key;
+        return this;
+    }
+
+    // Mirrors the leading field of a Mongo index, so finders on it avoid a full scan
+    InMemoryStore<T> partitionBy(Function<T, Object> key) {
+        this.partitionKey = key;
+        return this;
+    }
+
+    InMemoryStore<T> finder(String methodName, Function<Object[], Object> finder) {
+        finders.put(methodName, finder);
+        return this;
+    }
+
+    <R> R repository(Class<R> repositoryType) {
+        return repositoryType.cast(Proxy.newProxyInstance(
+                repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, this));
+    }
+
+    Collection<T> rows() {
+        return rows.values();
+    }
+
+    Collection<T> partition(Object key) {
+        List<T> result = new ArrayList<>();
+        for (String id : partitions.getOrDefault(key, Set.of())) {
+            T row = rows.get(id);
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    void clear() {
+        rows.clear();
+        uniqueKeys.clear();
+        keysById.clear();
+        partitions.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Function<Object[], Object> finder = finders.get(method.getName());
+        if (finder != null) {
+            return finder.apply(args);
+        }
+        switch (method.getName()) {
+            case "findById":
+                return Optional.ofNullable(rows.get((String) args[0]));
+            case "existsById":
+                return rows.containsKey((String) args[0]);
+            case "findAll":
+                if (args == null || args.length == 0) {
+                    return new ArrayList<>(rows.values());
+                }
+                break;
+            case "count":
+                return (long) rows.size();
+            case "insert":
+                return write((T) args[0], true);
+            case "save":
+                return write((T) args[0], false);
+            case "deleteById":
+                delete((String) args[0]);
+                return null;
+            case "delete":
+                delete(idGetter.apply((T) args[0]));
+                return null;
+            case "deleteAll":
+                if (args == null || args.length == 0) {
+                    clear();
+                    return null;
+                }
+                break;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryStore" + rows.keySet();
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException("Not supported by the in-memory store: " + method);
+    }
+
+    private synchronized T write(T row, boolean insert) {
+        String id = idGetter.apply(row);
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            idSetter.accept(row, id);
+        } else if (insert && rows.containsKey(id)) {
+            throw new DuplicateKeyException("Duplicate _id " + id);
+        }
+
+        Object key = uniqueKey.apply(row);
+        if (key != null) {
+            String owner = uniqueKeys.putIfAbsent(key, id);
+            if (owner != null && !owner.equals(id)) {
+                throw new DuplicateKeyException("Duplicate key " + key);
+            }
+        }
+        // Rows are often saved as the same instance they were loaded as, so the old key is tracked by id
+        Object previousKey = key == null ? keysById.remove(id) : keysById.put(id, key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            uniqueKeys.remove(previousKey, id);
+        }
+        T previous = rows.put(id, row);
+        if (previous != null && previous != row) {
+            removeFromPartition(previous, id);
+        }
+        Object partition = partitionKey.apply(row);
+        if (partition != null) {
+            partitions.computeIfAbsent(partition, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        return row;
+    }
+
+    private synchronized void delete(String id) {
+        T previous = rows.remove(id);
+        if (previous != null) {
+            removeFromPartition(previous, id);
+        }
+        Object key = keysById.remove(id);
+        if (key != null) {
+            uniqueKeys.remove(key, id);
+        }
+    }
+
+    private void removeFromPartition(T row, String id) {
+        Object partition = partitionKey.apply(row);
+        if (partition != null) {
+            partitions.computeIfPresent(partition, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static <T> List<T> matching(Collection<T> rows, Predicate<T> predicate) {
+        List<T> result = new ArrayList<>();
+        for (T row : rows) {
+            if (predicate.test(row)) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.doctorchannel.benchmarks;
+
+import com.doctorchannel.controller.AuthController;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// AuthController.login end to end (BCrypt verify plus token signing) with the production PasswordEncoder
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final int USERS = 1000;
+
+    // Only getRemoteAddr is read by the controller
+    private static final HttpServletRequest REQUEST = (HttpServletRequest) Proxy.newProxyInstance(
+            HttpServletRequest.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> "getRemoteAddr".equals(method.getName()) ? "127.0.0.1" : null);
+
+    private AuthController authController;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        fixtures.addUsers(USERS, Fixtures.passwordEncoder());
+        authController = fixtures.authController(Fixtures.passwordEncoder());
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> login() {
+        return login("patient" + (next++ % USERS) + "@example.com", Fixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> login_wrongPassword() {
+        return login("patient" + (next++ % USERS) + "@example.com", "not-the-password");
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> login_unknownEmail() {
+        return login("nobody" + (next++ % USERS) + "@example.com", Fixtures.PASSWORD);
+    }
+
+    // Includes the hand-off to the password hashing pool and back
+    private ResponseEntity<Map<String, Object>> login(String email, String password) {
+        return authController.login(Map.of("email", email, "password", password), REQUEST).join();
+    }
+}
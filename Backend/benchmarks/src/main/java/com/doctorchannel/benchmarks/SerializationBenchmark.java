@@ -0,0 +1,84 @@
+package com.doctorchannel.benchmarks;
+
+import com.doctorchannel.controller.CompactViewAdvice;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of the list payloads returned by the doctor and appointment endpoints, in the full
+// JSON, compact JSON and compact Smile representations
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper smileMapper;
+    private List<Doctor> doctors;
+    private List<Appointment> appointments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+        Random random = new Random(42);
+        Fixtures fixtures = new Fixtures();
+        fixtures.addDoctors(size, random);
+        fixtures.addAppointments(5, 1.0, random);
+        doctors = new ArrayList<>(fixtures.doctors.rows());
+        appointments = new ArrayList<>(fixtures.appointments.rows()).subList(0, size);
+    }
+
+    @Benchmark
+    public byte[] doctors() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(doctors);
+    }
+
+    @Benchmark
+    public byte[] appointments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public byte[] doctorsCompact() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(CompactViewAdvice.compact(doctors));
+    }
+
+    @Benchmark
+    public byte[] doctorsCompactSmile() throws JsonProcessingException {
+        return smileMapper.writeValueAsBytes(CompactViewAdvice.compact(doctors));
+    }
+
+    @Benchmark
+    public byte[] appointmentsCompact() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(CompactViewAdvice.compact(appointments));
+    }
+}
@@ -0,0 +1,58 @@
+// Same reads through the blocking controllers (MODE=blocking) or the reactive /api/browse endpoints
+// (MODE=reactive), held at a fixed number of concurrent connections; see README.md.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'reactive';
+const VUS = parseInt(__ENV.VUS || '2000', 10);
+
+export const options = {
+  scenarios: {
+    steady: { executor: 'constant-vus', vus: VUS, duration: __ENV.DURATION || '2m' },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const login = http.post(`${BASE_URL}/api/auth/login`,
+    JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(login, { 'logged in': (r) => r.status === 200 });
+
+  const doctors = http.get(`${BASE_URL}/api/doctors?limit=50`).json();
+  return {
+    token: login.json('token'),
+    doctorIds: doctors.map((d) => d.id),
+    specialties: [...new Set(doctors.map((d) => d.specialty))],
+  };
+}
+
+function pick(values) {
+  return values[Math.floor(Math.random() * values.length)];
+}
+
+export default function (data) {
+  const specialty = encodeURIComponent(pick(data.specialties));
+  const doctorId = pick(data.doctorIds);
+  const from = new Date().toISOString().slice(0, 10);
+  const to = new Date(Date.now() + 6 * 86400000).toISOString().slice(0, 10);
+  const auth = { Authorization: `Bearer ${data.token}` };
+
+  let search;
+  let appointments;
+  if (MODE === 'blocking') {
+    search = http.get(`${BASE_URL}/api/doctors/search?specialty=${specialty}&limit=100`,
+      { tags: { name: 'search' } });
+    appointments = http.get(`${BASE_URL}/api/appointments/doctor/${doctorId}?limit=100`,
+      { headers: auth, tags: { name: 'appointments' } });
+  } else {
+    const ndjson = { Accept: 'application/x-ndjson' };
+    search = http.get(`${BASE_URL}/api/browse/doctors?specialty=${specialty}`,
+      { headers: ndjson, tags: { name: 'search' } });
+    appointments = http.get(`${BASE_URL}/api/browse/doctors/${doctorId}/appointments?from=${from}&to=${to}`,
+      { headers: { ...ndjson, ...auth }, tags: { name: 'appointments' } });
+  }
+  check(search, { 'search 200': (r) => r.status === 200 });
+  check(appointments, { 'appointments 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,58 @@
+// Read-heavy mix over DoctorController and AppointmentController for comparing platform and virtual threads.
+// Ramps well past the Tomcat thread limit (server.tomcat.threads.max, default 200); see README.md.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '800', 10);
+
+export const options = {
+  scenarios: {
+    ramp: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: MAX_VUS / 4 },
+        { duration: '30s', target: MAX_VUS / 2 },
+        { duration: '30s', target: MAX_VUS },
+        { duration: '60s', target: MAX_VUS },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const login = http.post(`${BASE_URL}/api/auth/login`,
+    JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(login, { 'logged in': (r) => r.status === 200 });
+
+  const doctors = http.get(`${BASE_URL}/api/doctors?limit=50`).json();
+  return {
+    token: login.json('token'),
+    doctorIds: doctors.map((d) => d.id),
+    specialties: [...new Set(doctors.map((d) => d.specialty))],
+  };
+}
+
+function pick(values) {
+  return values[Math.floor(Math.random() * values.length)];
+}
+
+export default function (data) {
+  const auth = { headers: { Authorization: `Bearer ${data.token}` } };
+  const doctorId = pick(data.doctorIds);
+  const from = new Date().toISOString().slice(0, 10);
+  const to = new Date(Date.now() + 6 * 86400000).toISOString().slice(0, 10);
+
+  const responses = http.batch([
+    ['GET', `${BASE_URL}/api/doctors?limit=20`, null, { tags: { name: 'doctors' } }],
+    ['GET', `${BASE_URL}/api/doctors/search?specialty=${encodeURIComponent(pick(data.specialties))}`, null,
+      { tags: { name: 'doctors.search' } }],
+    ['GET', `${BASE_URL}/api/doctors/${doctorId}/slots?from=${from}&to=${to}`, null, { tags: { name: 'doctors.slots' } }],
+    ['GET', `${BASE_URL}/api/appointments/doctor/${doctorId}?limit=20`, null,
+      { ...auth, tags: { name: 'appointments.doctor' } }],
+  ]);
+  responses.forEach((r) => check(r, { 'status 200': (res) => res.status === 200 }));
+}
@@ -1,12 +1,23 @@
 package com.doctorchannel;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.doctorchannel.config.BCryptCalibration;
+import com.doctorchannel.config.SecurityConfig;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
+// Prints BCrypt hash times on this host for each strength, then a hash of the given password in the
+// stored format. Usage: PasswordUtil [password] [strength]
 public class PasswordUtil {
     public static void main(String[] args) {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        String rawPassword = "admin123"; // Change this to your desired password
+        String rawPassword = args.length > 0 ? args[0] : "admin123";
+        int strength = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        System.out.println("strength  ms/hash");
+        for (int s = 8; s <= 14; s++) {
+            System.out.printf("%8d  %7.1f%n", s, BCryptCalibration.measure(s) / 1_000_000.0);
+        }
+
+        PasswordEncoder encoder = SecurityConfig.passwordEncoder(strength);
         String encodedPassword = encoder.encode(rawPassword);
-        System.out.println("Encoded password for '" + rawPassword + "': " + encodedPassword);
+        System.out.println("Encoded password for '" + rawPassword + "' (strength " + strength + "): " + encodedPassword);
     }
 }
@@ -0,0 +1,84 @@
+package com.doctorchannel.config;
+
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.WaitlistEntry;
+import com.doctorchannel.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+// Access rules for a patient's own data. The access token's subject is the user id, so a patient may use
+// routes naming their own id or an appointment or waitlist entry booked under it; admins may use all of them.
+@Component
+public class AppointmentAccess {
+
+    private static final String ADMIN = "ROLE_ADMIN";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // The {userId} path variable is the caller
+    public AuthorizationManager<RequestAuthorizationContext> ownUserId() {
+        return (authentication, context) -> {
+            Authentication caller = authentication.get();
+            return new AuthorizationDecision(isAdmin(caller) || isCaller(caller, context.getVariables().get("userId")));
+        };
+    }
+
+    // The {id} path variable is an appointment booked by the caller. Unknown ids are refused like someone
+    // else's, so the answer does not tell a patient which ids exist.
+    public AuthorizationManager<RequestAuthorizationContext> ownAppointment() {
+        return (authentication, context) -> {
+            Authentication caller = authentication.get();
+            if (isAdmin(caller)) {
+                return new AuthorizationDecision(true);
+            }
+            if (!isAuthenticated(caller)) {
+                return new AuthorizationDecision(false);
+            }
+            String owner = appointmentRepository.findById(context.getVariables().get("id"))
+                    .map(Appointment::getUserId).orElse(null);
+            return new AuthorizationDecision(isCaller(caller, owner));
+        };
+    }
+
+    // The {id} path variable is a waitlist entry the caller joined; unknown ids are refused as above
+    public AuthorizationManager<RequestAuthorizationContext> ownWaitlistEntry() {
+        return (authentication, context) -> {
+            Authentication caller = authentication.get();
+            if (isAdmin(caller)) {
+                return new AuthorizationDecision(true);
+            }
+            if (!isAuthenticated(caller)) {
+                return new AuthorizationDecision(false);
+            }
+            Query entry = new Query(Criteria.where("id").is(context.getVariables().get("id")));
+            entry.fields().include("userId");
+            WaitlistEntry found = mongoTemplate.findOne(entry, WaitlistEntry.class);
+            return new AuthorizationDecision(isCaller(caller, found == null ? null : found.getUserId()));
+        };
+    }
+
+    public static boolean isAdmin(Authentication caller) {
+        return isAuthenticated(caller)
+                && caller.getAuthorities().stream().anyMatch(authority -> ADMIN.equals(authority.getAuthority()));
+    }
+
+    private static boolean isCaller(Authentication caller, String userId) {
+        return isAuthenticated(caller) && userId != null && userId.equals(caller.getName());
+    }
+
+    private static boolean isAuthenticated(Authentication caller) {
+        return caller != null && caller.isAuthenticated() && !(caller instanceof AnonymousAuthenticationToken);
+    }
+}
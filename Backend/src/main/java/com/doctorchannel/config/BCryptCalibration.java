@@ -0,0 +1,56 @@
+package com.doctorchannel.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+// Picks the highest BCrypt strength whose hash time on this host stays within a latency budget.
+// Each +1 in strength doubles the work, so one measurement at the floor predicts the rest.
+@Slf4j
+public final class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        long nanosAtMin = measure(minStrength);
+        int strength = pickStrength(nanosAtMin, minStrength, maxStrength, target);
+        long estimated = nanosAtMin << (strength - minStrength);
+        if (estimated > target.toNanos()) {
+            log.warn("BCrypt strength {} takes ~{} ms here, above the {} ms budget; not going below the minimum",
+                    strength, estimated / 1_000_000, target.toMillis());
+        } else {
+            log.info("BCrypt strength {} selected (~{} ms per hash, budget {} ms)",
+                    strength, estimated / 1_000_000, target.toMillis());
+        }
+        return strength;
+    }
+
+    static int pickStrength(long nanosAtMin, int minStrength, int maxStrength, Duration target) {
+        long budget = target.toNanos();
+        int strength = minStrength;
+        long nanos = nanosAtMin;
+        while (strength < maxStrength && nanos * 2 <= budget) {
+            nanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    // Fastest of a few hashes after one warm-up, to keep JIT and scheduling noise out
+    public static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
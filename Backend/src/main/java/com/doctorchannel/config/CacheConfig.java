@@ -0,0 +1,39 @@
+package com.doctorchannel.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DOCTORS = "doctors";
+    public static final String DOCTOR_PAGES = "doctorPages";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.doctors.max-size:10000}") long doctorsMaxSize,
+            @Value("${app.cache.doctors.ttl:10m}") String doctorsTtl,
+            @Value("${app.cache.doctor-pages.max-size:500}") long pagesMaxSize,
+            @Value("${app.cache.doctor-pages.ttl:2m}") String pagesTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Stats are recorded so Actuator can publish hit/miss/eviction counts per cache
+        cacheManager.registerCustomCache(DOCTORS, Caffeine.newBuilder()
+                .maximumSize(doctorsMaxSize)
+                .expireAfterWrite(DurationStyle.detectAndParse(doctorsTtl))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(DOCTOR_PAGES, Caffeine.newBuilder()
+                .maximumSize(pagesMaxSize)
+                .expireAfterWrite(DurationStyle.detectAndParse(pagesTtl))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,101 @@
+package com.doctorchannel.config;
+
+import com.doctorchannel.service.TokenRevocationList;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+// HMAC-signed JWTs: validating one is a signature check plus claim checks, with no database or BCrypt work
+@Slf4j
+@Configuration
+public class JwtConfig {
+
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    @Bean
+    public SecretKey jwtSigningKey(@Value("${app.security.jwt.secret:}") String secret) {
+        byte[] bytes;
+        if (secret == null || secret.isBlank()) {
+            // Tokens then stop working on restart and are not shared between instances
+            log.warn("app.security.jwt.secret is not set; using a random signing key for this process");
+            bytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("app.security.jwt.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+        }
+        return new SecretKeySpec(bytes, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey jwtSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(jwtSigningKey));
+    }
+
+    // Used by the bearer token filter, so it only accepts live access tokens
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey jwtSigningKey, TokenRevocationList revocationList,
+                                 @Value("${app.security.jwt.issuer:doctor-channeling}") String issuer) {
+        return decoder(jwtSigningKey, revocationList, issuer, ACCESS_TOKEN);
+    }
+
+    // role "ADMIN" becomes authority ROLE_ADMIN
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(ROLES_CLAIM);
+        authorities.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
+    public static NimbusJwtDecoder decoder(SecretKey key, TokenRevocationList revocationList,
+                                           String issuer, String tokenType) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer),
+                tokenType(tokenType),
+                notRevoked(revocationList)));
+        return decoder;
+    }
+
+    private static OAuth2TokenValidator<Jwt> tokenType(String expected) {
+        return jwt -> expected.equals(jwt.getClaimAsString(TOKEN_TYPE_CLAIM))
+                ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Expected a " + expected + " token", null));
+    }
+
+    private static OAuth2TokenValidator<Jwt> notRevoked(TokenRevocationList revocationList) {
+        return jwt -> revocationList.isRevoked(jwt.getId())
+                ? OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Token has been revoked", null))
+                : OAuth2TokenValidatorResult.success();
+    }
+}
@@ -0,0 +1,99 @@
+package com.doctorchannel.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    // Adds a "controller" tag to http.server.requests next to the default uri/method/status/outcome tags
+    @Bean
+    public ServerRequestObservationConvention controllerTaggingObservationConvention() {
+        return new ControllerTaggingObservationConvention();
+    }
+
+    // Times BCrypt separately so slow logins can be told apart from slow lookups
+    @Bean
+    public static BeanPostProcessor timedPasswordEncoderPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof PasswordEncoder encoder && !(bean instanceof TimedPasswordEncoder)) {
+                    return new TimedPasswordEncoder(encoder, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class ControllerTaggingObservationConvention extends DefaultServerRequestObservationConvention {
+
+        static final String CONTROLLER = "controller";
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+            return super.getLowCardinalityKeyValues(context).and(controller(context));
+        }
+
+        private KeyValue controller(ServerRequestObservationContext context) {
+            Object handler = context.getCarrier() == null ? null
+                    : context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            if (handler instanceof HandlerMethod handlerMethod) {
+                return KeyValue.of(CONTROLLER, handlerMethod.getBeanType().getSimpleName());
+            }
+            return KeyValue.of(CONTROLLER, "none");
+        }
+    }
+
+    static class TimedPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        TimedPasswordEncoder(PasswordEncoder delegate, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.delegate = delegate;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return time("encode", () -> delegate.encode(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return time("matches", () -> delegate.matches(rawPassword, encodedPassword));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+
+        private <T> T time(String operation, Supplier<T> call) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return call.get();
+            }
+            return Timer.builder("security.password.encoder")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(call);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.doctorchannel.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+// Multi-document transactions need MongoDB running as a replica set; a standalone server rejects them
+@Configuration
+@ConditionalOnProperty(name = "app.outbox.transactions", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
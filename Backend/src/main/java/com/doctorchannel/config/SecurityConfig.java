@@ -1,39 +1,129 @@
 package com.doctorchannel.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private JwtAuthenticationConverter jwtAuthenticationConverter;
+
+    @Autowired
+    private AppointmentAccess appointmentAccess;
+
+    // Prometheus cannot refresh access tokens, so the scrape endpoint also takes a fixed basic-auth
+    // credential when one is configured. It only grants METRICS, which nothing else accepts.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain scrapeFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+            @Value("${app.metrics.scrape-username:prometheus}") String username,
+            @Value("${app.metrics.scrape-password:}") String password) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyRole("ADMIN", "METRICS"))
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)));
+        if (!password.isBlank()) {
+            http
+                .userDetailsService(new InMemoryUserDetailsManager(User.withUsername(username)
+                    .password(passwordEncoder.encode(password)).roles("METRICS").build()))
+                .httpBasic(basic -> { });
+        }
+        return http.build();
+    }
+
+    // Stateless: every protected call carries a signed access token, verified without a database lookup
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                // Streamed responses finish on an async dispatch of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                // Cache flushes and metrics are for operators only; the Prometheus scrape has its own chain above
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
-                .anyRequest().permitAll()
-            );
+                .requestMatchers(HttpMethod.GET, "/api/doctors/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/browse/doctors", "/api/browse/doctors/*").permitAll()
+                .requestMatchers("/api/doctors/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/appointments", "/api/appointments/export").hasRole("ADMIN")
+                .requestMatchers("/api/appointments/availability/**").hasRole("ADMIN")
+                .requestMatchers("/api/appointments/bulk", "/api/appointments/bulk/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/appointments/*/status").hasRole("ADMIN")
+                // A doctor's appointments carry every one of their patients' details
+                .requestMatchers("/api/appointments/doctor/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/browse/doctors/*/appointments").hasRole("ADMIN")
+                .requestMatchers("/api/appointments/user/{userId}", "/api/appointments/user/{userId}/**")
+                    .access(appointmentAccess.ownUserId())
+                .requestMatchers(HttpMethod.GET, "/api/waitlist/user/{userId}").access(appointmentAccess.ownUserId())
+                .requestMatchers(HttpMethod.GET, "/api/appointments/{id}").access(appointmentAccess.ownAppointment())
+                .requestMatchers(HttpMethod.DELETE, "/api/appointments/{id}").access(appointmentAccess.ownAppointment())
+                .requestMatchers("/api/stats/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/waitlist/doctor/**").hasRole("ADMIN")
+                .requestMatchers("/api/waitlist/*/priority").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/waitlist/{id}").access(appointmentAccess.ownWaitlistEntry())
+                .requestMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/users").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/users/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/users/{userId}").access(appointmentAccess.ownUserId())
+                .requestMatchers(HttpMethod.PUT, "/api/users/{userId}").access(appointmentAccess.ownUserId())
+                .anyRequest().authenticated()
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)));
         return http.build();
     }
 
+    // strength > 0 pins the BCrypt cost; otherwise it is calibrated against the hash time budget at startup
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.strength:0}") int strength,
+            @Value("${app.security.password.hash-time-budget:150ms}") String hashTimeBudget,
+            @Value("${app.security.password.min-strength:10}") int minStrength,
+            @Value("${app.security.password.max-strength:14}") int maxStrength) {
+        int selected = strength > 0 ? strength
+                : BCryptCalibration.calibrate(DurationStyle.detectAndParse(hashTimeBudget), minStrength, maxStrength);
+        return passwordEncoder(selected);
+    }
+
+    // New hashes are stored as {bcrypt}$2a$<strength>$... Legacy hashes without the prefix still verify;
+    // upgradeEncoding() flags those, and any hash weaker than the target, so they are rehashed at login
+    public static PasswordEncoder passwordEncoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -47,6 +137,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
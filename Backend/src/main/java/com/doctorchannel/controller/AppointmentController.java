@@ -1,17 +1,37 @@
 package com.doctorchannel.controller;
 
+import com.doctorchannel.config.AppointmentAccess;
+import com.doctorchannel.dto.BulkResult;
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.dto.StatusUpdate;
 import com.doctorchannel.model.Appointment;
+import com.doctorchannel.service.AppointmentArchiveService;
+import com.doctorchannel.service.AppointmentBulkService;
+import com.doctorchannel.service.AppointmentExportService;
 import com.doctorchannel.service.AppointmentService;
+import com.doctorchannel.service.BookingMetrics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @RestController
@@ -22,14 +42,63 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
 
-    @Operation(summary = "Get all appointments", description = "Retrieves all appointments (Admin)")
+    @Autowired
+    private AppointmentExportService appointmentExportService;
+
+    @Autowired
+    private AppointmentBulkService appointmentBulkService;
+
+    @Autowired
+    private AppointmentArchiveService appointmentArchiveService;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Value("${app.archive.history-max-days:1096}")
+    private int historyMaxDays;
+
+    @Operation(summary = "Get all appointments",
+            description = "Retrieves one page of appointments; the next page's cursor is in the X-Next-Cursor header (Admin)")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved appointments")
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
-        return ResponseEntity.ok(appointmentService.getAllAppointments());
+    public ResponseEntity<List<Appointment>> getAllAppointments(@ParameterObject PageQuery page) {
+        return PageResponses.of(appointmentService.getAppointments(page));
+    }
+
+    @Operation(summary = "Export appointments",
+            description = "Streams appointments as NDJSON or CSV, optionally filtered by date range and status (Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export stream"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "First day (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Appointment status") @RequestParam(required = false) String status) {
+        StreamingResponseBody body;
+        MediaType contentType;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            body = out -> appointmentExportService.exportNdjson(from, to, status, out);
+            contentType = MediaType.parseMediaType("application/x-ndjson");
+        } else if ("csv".equalsIgnoreCase(format)) {
+            body = out -> appointmentExportService.exportCsv(from, to, status, out);
+            contentType = MediaType.parseMediaType("text/csv");
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + format.toLowerCase() + "\"")
+                .body(body);
     }
 
-    @Operation(summary = "Get appointment by ID", description = "Retrieves a specific appointment")
+    @Operation(summary = "Get appointment by ID", description = "Retrieves a specific appointment (own appointments, or Admin)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Appointment found"),
         @ApiResponse(responseCode = "404", description = "Appointment not found")
@@ -42,32 +111,96 @@ public class AppointmentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Get user's appointments", description = "Retrieves all appointments for a specific user")
+    @Operation(summary = "Get user's appointments", description = "Retrieves all appointments for a specific user (own ID, or Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "One page of the user's appointments"),
+        @ApiResponse(responseCode = "304", description = "The page matching If-None-Match is still current")
+    })
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Appointment>> getAppointmentsByUserId(
-            @Parameter(description = "User ID") @PathVariable String userId) {
-        return ResponseEntity.ok(appointmentService.getAppointmentsByUserId(userId));
+            @Parameter(description = "User ID") @PathVariable String userId,
+            @ParameterObject PageQuery page, WebRequest request) {
+        // Patient data: only the browser may keep it, and it has to revalidate on every use
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            // A poll: check the client's tag against ids and versions only, before reading whole appointments
+            String current = ConditionalResponses.pageTag(appointmentService.getAppointmentsByUserId(userId,
+                    ConditionalResponses.versionsOnly(page)), Appointment::getId, Appointment::getVersion, page, request);
+            if (request.checkNotModified(current)) {
+                return ConditionalResponses.notModifiedResponse(current, cacheControl);
+            }
+        }
+        CursorPage<Appointment> appointments = appointmentService.getAppointmentsByUserId(userId,
+                ConditionalResponses.withVersion(page));
+        return PageResponses.of(appointments,
+                ConditionalResponses.pageTag(appointments, Appointment::getId, Appointment::getVersion, page, request), cacheControl);
     }
 
-    @Operation(summary = "Get doctor's appointments", description = "Retrieves all appointments for a specific doctor")
+    @Operation(summary = "Get doctor's appointments", description = "Retrieves all appointments for a specific doctor (Admin)")
     @GetMapping("/doctor/{doctorId}")
     public ResponseEntity<List<Appointment>> getAppointmentsByDoctorId(
-            @Parameter(description = "Doctor ID") @PathVariable String doctorId) {
-        return ResponseEntity.ok(appointmentService.getAppointmentsByDoctorId(doctorId));
+            @Parameter(description = "Doctor ID") @PathVariable String doctorId,
+            @ParameterObject PageQuery page) {
+        return PageResponses.of(appointmentService.getAppointmentsByDoctorId(doctorId, page));
     }
 
-    @Operation(summary = "Book appointment", description = "Create a new appointment booking")
+    @Operation(summary = "Get user's appointment history",
+            description = "Appointments for a user in a date range, including archived ones, newest first (own ID, or Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Appointment history"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long date range")
+    })
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<List<Appointment>> getUserHistory(
+            @Parameter(description = "User ID") @PathVariable String userId,
+            @Parameter(description = "First day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!validHistoryRange(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(appointmentArchiveService.getUserHistory(userId, from, to));
+    }
+
+    @Operation(summary = "Get doctor's appointment history",
+            description = "Appointments for a doctor in a date range, including archived ones, newest first (Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Appointment history"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long date range")
+    })
+    @GetMapping("/doctor/{doctorId}/history")
+    public ResponseEntity<List<Appointment>> getDoctorHistory(
+            @Parameter(description = "Doctor ID") @PathVariable String doctorId,
+            @Parameter(description = "First day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!validHistoryRange(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(appointmentArchiveService.getDoctorHistory(doctorId, from, to));
+    }
+
+    @Operation(summary = "Book appointment",
+            description = "Create a new appointment booking for the caller (Admins may book for any user)")
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Appointment booked successfully"),
         @ApiResponse(responseCode = "409", description = "Time slot not available")
     })
     @PostMapping
-    public ResponseEntity<Appointment> createAppointment(@RequestBody Appointment appointment) {
+    public ResponseEntity<Appointment> createAppointment(@RequestBody Appointment appointment, Authentication caller) {
+        // Patients book for themselves; only admins book on someone else's behalf
+        if (!AppointmentAccess.isAdmin(caller)) {
+            appointment.setUserId(caller.getName());
+        }
         appointment.onCreate();
 
+        // Fast rejection from the in-memory index; the insert itself guards against races
         if (!appointmentService.isSlotAvailable(
                 appointment.getDoctorId(),
                 appointment.getAppointmentDateTime())) {
+            bookingMetrics.conflict(BookingMetrics.STAGE_PRECHECK);
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -77,17 +210,51 @@ public class AppointmentController {
     @Operation(summary = "Update appointment status", description = "Update the status of an appointment (Admin)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Status updated successfully"),
-        @ApiResponse(responseCode = "404", description = "Appointment not found")
+        @ApiResponse(responseCode = "404", description = "Appointment not found"),
+        @ApiResponse(responseCode = "409", description = "Appointment changed since the given version, or its slot is taken")
     })
     @PutMapping("/{id}/status")
     public ResponseEntity<Appointment> updateAppointmentStatus(
             @Parameter(description = "Appointment ID") @PathVariable String id,
             @Parameter(description = "New status (PENDING, CONFIRMED, COMPLETED, CANCELLED)")
-            @RequestParam String status) {
-        return ResponseEntity.ok(appointmentService.updateAppointmentStatus(id, status));
+            @RequestParam String status,
+            @Parameter(description = "Version the change is based on; omit to apply regardless")
+            @RequestParam(required = false) Long version) {
+        return ResponseEntity.ok(appointmentService.updateAppointmentStatus(id, status, version));
     }
 
-    @Operation(summary = "Delete appointment", description = "Cancel/delete an appointment")
+    @Operation(summary = "Bulk update appointment statuses",
+            description = "Apply many status changes at once, e.g. a clinic's end-of-day file; only the first change per appointment is applied (Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Per-item results, in request order"),
+        @ApiResponse(responseCode = "400", description = "Empty or too many items")
+    })
+    @PostMapping("/bulk/status")
+    public ResponseEntity<BulkResult> bulkUpdateStatus(@RequestBody List<StatusUpdate> updates) {
+        return ResponseEntity.ok(appointmentBulkService.updateStatuses(updates));
+    }
+
+    @Operation(summary = "Bulk import appointments",
+            description = "Insert many appointments at once; taken slots are reported per item (Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Per-item results, in request order"),
+        @ApiResponse(responseCode = "400", description = "Empty or too many items")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> bulkImport(@RequestBody List<Appointment> appointments) {
+        return ResponseEntity.ok(appointmentBulkService.importAppointments(appointments));
+    }
+
+    @Operation(summary = "Rebuild slot availability index",
+            description = "Reload the in-memory slot availability index from the appointments collection (Admin)")
+    @ApiResponse(responseCode = "204", description = "Index rebuilt")
+    @PostMapping("/availability/rebuild")
+    public ResponseEntity<Void> rebuildSlotIndex() {
+        appointmentService.rebuildSlotIndex();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Delete appointment", description = "Cancel/delete an appointment (own appointments, or Admin)")
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Appointment deleted"),
         @ApiResponse(responseCode = "404", description = "Appointment not found")
@@ -98,4 +265,8 @@ public class AppointmentController {
         appointmentService.deleteAppointment(id);
         return ResponseEntity.noContent().build();
     }
+
+    private boolean validHistoryRange(LocalDate from, LocalDate to) {
+        return !to.isBefore(from) && ChronoUnit.DAYS.between(from, to) < historyMaxDays;
+    }
 }
@@ -1,21 +1,28 @@
 package com.doctorchannel.controller;
 
+import com.doctorchannel.dto.TokenPair;
 import com.doctorchannel.model.User;
 import com.doctorchannel.service.AuthService;
+import com.doctorchannel.service.LoginRateLimiter;
+import com.doctorchannel.service.PasswordHashingService;
+import com.doctorchannel.service.TokenService;
 import com.doctorchannel.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -29,52 +36,115 @@ public class AuthController {
     private AuthService authService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
-    @Operation(summary = "User login", description = "Authenticate user with email and password")
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Operation(summary = "User login",
+            description = "Authenticate user with email and password; returns a short-lived access token and a refresh token")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Login successful"),
-        @ApiResponse(responseCode = "401", description = "Invalid credentials")
+        @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+        @ApiResponse(responseCode = "429", description = "Too many attempts or password hashing saturated")
     })
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> credentials) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(
+            @RequestBody Map<String, String> credentials, HttpServletRequest request) {
         String email = credentials.get("email");
         String password = credentials.get("password");
 
+        loginRateLimiter.acquire(email, request.getRemoteAddr());
         Optional<User> userOpt = userService.getUserByEmail(email);
+        if (userOpt.isEmpty()) {
+            return CompletableFuture.completedFuture(invalidCredentials());
+        }
 
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
+        // The request thread is released while BCrypt runs on the hashing pool
+        User user = userOpt.get();
+        return passwordHashingService.matches(password, user.getPassword())
+                .thenApply(matched -> {
+                    if (!matched) {
+                        return invalidCredentials();
+                    }
+                    authService.upgradePasswordHash(user, password);
+                    Map<String, Object> response = tokenResponse(tokenService.issue(user));
+                    response.put("user", user);
+                    response.put("message", "Login successful");
+                    return ResponseEntity.ok(response);
+                });
+    }
 
-            if (passwordEncoder.matches(password, user.getPassword())) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("success", true);
-                response.put("user", user);
-                response.put("message", "Login successful");
-                return ResponseEntity.ok(response);
-            }
+    @Operation(summary = "Refresh tokens", description = "Exchange a refresh token for a new access/refresh token pair")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tokens refreshed"),
+        @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired or revoked")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestBody Map<String, String> body) {
+        String refreshToken = body.get("refreshToken");
+        Optional<TokenPair> tokens = refreshToken == null ? Optional.empty() : tokenService.refresh(refreshToken);
+        if (tokens.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Invalid refresh token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
         }
+        return ResponseEntity.ok(tokenResponse(tokens.get()));
+    }
 
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("success", false);
-        errorResponse.put("message", "Invalid credentials");
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+    @Operation(summary = "Logout", description = "Revoke the caller's access token and the given refresh token")
+    @ApiResponse(responseCode = "204", description = "Logged out")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @AuthenticationPrincipal Jwt accessToken,
+            @RequestBody(required = false) Map<String, String> body) {
+        if (accessToken != null) {
+            tokenService.revoke(accessToken);
+        }
+        if (body != null && body.get("refreshToken") != null) {
+            tokenService.revokeRefreshToken(body.get("refreshToken"));
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @Operation(summary = "User registration", description = "Register a new user account")
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Registration successful"),
-        @ApiResponse(responseCode = "400", description = "Invalid user data")
+        @ApiResponse(responseCode = "400", description = "Invalid user data"),
+        @ApiResponse(responseCode = "429", description = "Too many attempts or password hashing saturated")
     })
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@RequestBody User user) {
-        User createdUser = authService.registerUser(user);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> register(
+            @RequestBody User user, HttpServletRequest request) {
+        loginRateLimiter.acquire(null, request.getRemoteAddr());
+        return authService.registerUser(user).thenApply(createdUser -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("user", createdUser);
+            response.put("message", "Registration successful");
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
+    private static ResponseEntity<Map<String, Object>> invalidCredentials() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Invalid credentials");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+    }
 
+    private static Map<String, Object> tokenResponse(TokenPair tokens) {
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("user", createdUser);
-        response.put("message", "Registration successful");
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        response.put("token", tokens.getAccessToken());
+        response.put("refreshToken", tokens.getRefreshToken());
+        response.put("tokenType", "Bearer");
+        response.put("expiresIn", tokens.getExpiresIn());
+        return response;
     }
 }
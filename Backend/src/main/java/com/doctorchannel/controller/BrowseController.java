@@ -0,0 +1,82 @@
+package com.doctorchannel.controller;
+
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.service.BrowseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+// Read-only endpoints on the reactive Mongo driver. With Accept: application/x-ndjson results are written
+// one per line as Mongo returns them; with application/json they are collected into an array.
+// The servlet thread is released while the query runs, so slow mobile clients do not hold Tomcat threads.
+@RestController
+@RequestMapping("/api/browse")
+@Tag(name = "Browse", description = "Streamed read-only doctor and appointment APIs")
+public class BrowseController {
+
+    @Autowired
+    private BrowseService browseService;
+
+    @Value("${app.slots.max-range-days:62}")
+    private int maxRangeDays;
+
+    @Operation(summary = "Browse doctors",
+            description = "Streams doctors matching all given criteria (specialty, city, active status, fee range, available days)")
+    @ApiResponse(responseCode = "200", description = "Matching doctors, ordered by name")
+    @GetMapping(value = "/doctors", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Doctor> browseDoctors(@ParameterObject DoctorSearchCriteria criteria) {
+        return browseService.searchDoctors(criteria);
+    }
+
+    @Operation(summary = "Get doctor by ID", description = "Retrieves a specific doctor by their ID")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Doctor found"),
+        @ApiResponse(responseCode = "404", description = "Doctor not found")
+    })
+    @GetMapping("/doctors/{id}")
+    public Mono<ResponseEntity<Doctor>> getDoctor(@Parameter(description = "Doctor ID") @PathVariable String id) {
+        return browseService.getDoctor(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Browse a doctor's appointments",
+            description = "Streams a doctor's appointments between two days (inclusive), in time order (Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Appointments in the range"),
+        @ApiResponse(responseCode = "400", description = "Range is reversed or too long")
+    })
+    @GetMapping(value = "/doctors/{id}/appointments",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Flux<Appointment>> browseDoctorAppointments(
+            @Parameter(description = "Doctor ID") @PathVariable String id,
+            @Parameter(description = "First day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(browseService.getDoctorAppointments(id, from, to));
+    }
+}
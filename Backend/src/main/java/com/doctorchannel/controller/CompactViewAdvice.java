@@ -0,0 +1,116 @@
+package com.doctorchannel.controller;
+
+import com.doctorchannel.dto.AppointmentDTO;
+import com.doctorchannel.dto.DoctorDTO;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.service.DoctorSchedule;
+import org.reactivestreams.Publisher;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// Swaps Doctor and Appointment response bodies, single or in a list, for DoctorDTO/AppointmentDTO when the
+// client asks for the compact view with ?view=compact or Accept: application/vnd.doctorchannel.compact+json.
+// Works with either JSON or Smile on the wire.
+@RestControllerAdvice
+public class CompactViewAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String COMPACT_JSON_VALUE = "application/vnd.doctorchannel.compact+json";
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+    static final String VIEW_PARAM = "view";
+    static final String COMPACT = "compact";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        // Streamed (Flux) responses are written item by item after the headers have gone out
+        return !Publisher.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!hasDomainItems(body)) {
+            return body;
+        }
+        // Shared caches must keep the JSON, compact and Smile forms of a URL apart
+        if (!response.getHeaders().getVary().contains(HttpHeaders.ACCEPT)) {
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        String view = request instanceof ServletServerHttpRequest servlet
+                ? servlet.getServletRequest().getParameter(VIEW_PARAM) : null;
+        if (!isCompact(view, request.getHeaders().getFirst(HttpHeaders.ACCEPT))) {
+            return body;
+        }
+        return compact(body);
+    }
+
+    static boolean isCompact(WebRequest request) {
+        return isCompact(request.getParameter(VIEW_PARAM), request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    static boolean isCompact(String view, String accept) {
+        return COMPACT.equalsIgnoreCase(view) || (accept != null && accept.contains(COMPACT_JSON_VALUE));
+    }
+
+    private static boolean hasDomainItems(Object body) {
+        if (body instanceof List<?> list) {
+            return !list.isEmpty() && (list.get(0) instanceof Doctor || list.get(0) instanceof Appointment);
+        }
+        return body instanceof Doctor || body instanceof Appointment;
+    }
+
+    // Doctors and appointments, single or in a list, as their compact DTOs; anything else is returned as is
+    public static Object compact(Object body) {
+        if (body instanceof List<?> list) {
+            List<Object> compact = new ArrayList<>(list.size());
+            for (Object item : list) {
+                compact.add(compactItem(item));
+            }
+            return compact;
+        }
+        return compactItem(body);
+    }
+
+    private static Object compactItem(Object item) {
+        if (item instanceof Doctor doctor) {
+            return new DoctorDTO(doctor.getId(), doctor.getName(), doctor.getSpecialty(), doctor.getCity(),
+                    doctor.getHospitalName(), doctor.getConsultationFee(), doctor.getImageUrl(),
+                    doctor.getAvailableDays() == null ? null : dayMask(doctor.getAvailableDays()),
+                    doctor.getSlotDuration(), doctor.getIsActive(), doctor.getVersion());
+        }
+        if (item instanceof Appointment appointment) {
+            return new AppointmentDTO(appointment.getId(), appointment.getUserId(), appointment.getDoctorId(),
+                    appointment.getPatientName(), epochSeconds(appointment.getAppointmentDateTime()),
+                    appointment.getStatus(), appointment.getPaymentOption(), appointment.getPaymentStatus(),
+                    epochSeconds(appointment.getUpdatedAt()), appointment.getVersion());
+        }
+        return item;
+    }
+
+    private static int dayMask(List<String> days) {
+        int mask = 0;
+        for (DayOfWeek day : DoctorSchedule.parseDays(days)) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    private static Long epochSeconds(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -0,0 +1,76 @@
+package com.doctorchannel.controller;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Strong ETags built from document ids and versions rather than from the serialized body, so a client whose
+// copy is current gets a 304 before anything is serialized
+final class ConditionalResponses {
+
+    private static final String VERSION = "version";
+    private static final String SMILE = "smile";
+
+    private ConditionalResponses() {
+    }
+
+    static String versionTag(String id, Long version, WebRequest request) {
+        return versionTag(id, version) + variant(request);
+    }
+
+    // Changes with any item's version, with which items are on the page and in what order, and with the
+    // fields and representation asked for
+    static <T> String pageTag(CursorPage<T> page, Function<T, String> id, Function<T, Long> version, PageQuery query,
+                              WebRequest request) {
+        StringBuilder key = new StringBuilder();
+        for (T item : page.getItems()) {
+            key.append(versionTag(id.apply(item), version.apply(item))).append(',');
+        }
+        key.append(page.getNextCursor()).append('|').append(query.getFields()).append('|').append(variant(request));
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String versionTag(String id, Long version) {
+        return id + "-" + (version == null ? 0 : version);
+    }
+
+    // Strong tags have to differ between the JSON, compact and Smile bytes of the same data
+    private static String variant(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        boolean smile = accept != null && accept.contains(SMILE);
+        boolean compact = CompactViewAdvice.isCompact(request);
+        return (compact ? "-compact" : "") + (smile ? "-smile" : "");
+    }
+
+    // A sparse-fieldset page still has to carry versions for its tag to change when an item does
+    static PageQuery withVersion(PageQuery page) {
+        if (page.getFields() == null || page.getFields().isEmpty() || page.getFields().contains(VERSION)) {
+            return page;
+        }
+        List<String> fields = new ArrayList<>(page.getFields());
+        fields.add(VERSION);
+        return new PageQuery(page.getAfter(), page.getLimit(), page.getSort(), fields);
+    }
+
+    // Just ids and versions: enough to tell whether the client's copy of the page is current
+    static PageQuery versionsOnly(PageQuery page) {
+        return new PageQuery(page.getAfter(), page.getLimit(), page.getSort(), List.of(VERSION));
+    }
+
+    // Vary has to come with the 304 too: a shared cache revalidating its JSON copy must not be told that a
+    // compact or Smile tag matches it
+    static <T> ResponseEntity<T> notModifiedResponse(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT).build();
+    }
+}
@@ -1,17 +1,35 @@
 package com.doctorchannel.controller;
 
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.dto.PageQuery;
 import com.doctorchannel.model.Doctor;
 import com.doctorchannel.service.DoctorService;
+import com.doctorchannel.service.SlotService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,26 +42,105 @@ public class DoctorController {
     @Autowired
     private DoctorService doctorService;
 
-    @Operation(summary = "Get all doctors", description = "Retrieves a list of all registered doctors")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved doctors list")
+    @Autowired
+    private SlotService slotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.slots.max-range-days:62}")
+    private int maxSlotRangeDays;
+
+    @Value("${app.http.doctors-max-age:30s}")
+    private String doctorsMaxAge;
+
+    @Operation(summary = "Get all doctors",
+            description = "Retrieves one page of registered doctors; the next page's cursor is in the X-Next-Cursor header")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved doctors list"),
+        @ApiResponse(responseCode = "304", description = "The page matching If-None-Match is still current")
+    })
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
-        return ResponseEntity.ok(doctorService.getAllDoctors());
+    public ResponseEntity<List<Doctor>> getAllDoctors(@ParameterObject PageQuery page, WebRequest request) {
+        // Pages come from the doctor page cache, so the tag is computed from the cached page itself
+        CursorPage<Doctor> doctors = doctorService.getDoctors(ConditionalResponses.withVersion(page));
+        String etag = ConditionalResponses.pageTag(doctors, Doctor::getId, Doctor::getVersion, page, request);
+        if (request.checkNotModified(etag)) {
+            return ConditionalResponses.notModifiedResponse(etag, doctorCacheControl());
+        }
+        return PageResponses.of(doctors, etag, doctorCacheControl());
     }
 
     @Operation(summary = "Get doctor by ID", description = "Retrieves a specific doctor by their ID")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Doctor found"),
+        @ApiResponse(responseCode = "304", description = "The doctor matching If-None-Match is unchanged"),
         @ApiResponse(responseCode = "404", description = "Doctor not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Doctor> getDoctorById(
-            @Parameter(description = "Doctor ID") @PathVariable String id) {
+            @Parameter(description = "Doctor ID") @PathVariable String id, WebRequest request) {
         return doctorService.getDoctorById(id)
-                .map(ResponseEntity::ok)
+                .map(doctor -> {
+                    String etag = ConditionalResponses.versionTag(doctor.getId(), doctor.getVersion(), request);
+                    if (request.checkNotModified(etag)) {
+                        return ConditionalResponses.<Doctor>notModifiedResponse(etag, doctorCacheControl());
+                    }
+                    return ResponseEntity.ok().eTag(etag).cacheControl(doctorCacheControl()).body(doctor);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "List free slots", description = "Open appointment slots for a doctor between two dates (inclusive)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Free slots, in chronological order"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range"),
+        @ApiResponse(responseCode = "404", description = "Doctor not found")
+    })
+    @GetMapping("/{id}/slots")
+    public ResponseEntity<StreamingResponseBody> getFreeSlots(
+            @Parameter(description = "Doctor ID") @PathVariable String id,
+            @Parameter(description = "First day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxSlotRangeDays) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return doctorService.getDoctorById(id)
+                .map(doctor -> {
+                    StreamingResponseBody body = out -> {
+                        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                            json.writeStartArray();
+                            slotService.forEachFreeSlot(doctor, from, to, start -> {
+                                try {
+                                    json.writeStartObject();
+                                    json.writeStringField("start", start.toString());
+                                    json.writeStringField("end", start.plusMinutes(doctor.getSlotDuration()).toString());
+                                    json.writeEndObject();
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                            json.writeEndArray();
+                        }
+                    };
+                    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Search doctors",
+            description = "Find doctors matching all given criteria (specialty, city, active status, fee range, available days)")
+    @ApiResponse(responseCode = "200", description = "Matching doctors; the next page's cursor is in the X-Next-Cursor header")
+    @GetMapping("/search")
+    public ResponseEntity<List<Doctor>> searchDoctors(
+            @ParameterObject DoctorSearchCriteria criteria,
+            @ParameterObject PageQuery page) {
+        return PageResponses.of(doctorService.searchDoctors(criteria, page));
+    }
+
     @Operation(summary = "Search doctors by specialty", description = "Find doctors by their medical specialty")
     @GetMapping("/search/specialty")
     public ResponseEntity<List<Doctor>> searchBySpecialty(
@@ -93,10 +190,12 @@ public class DoctorController {
         }
     }
 
-    @Operation(summary = "Update doctor", description = "Update an existing doctor's information (Admin only)")
+    @Operation(summary = "Update doctor",
+            description = "Update the given fields of an existing doctor; omitted or null fields are left as they are (Admin only)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Doctor updated successfully"),
-        @ApiResponse(responseCode = "404", description = "Doctor not found")
+        @ApiResponse(responseCode = "404", description = "Doctor not found"),
+        @ApiResponse(responseCode = "409", description = "Doctor changed since the version in the request")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Doctor> updateDoctor(
@@ -116,4 +215,9 @@ public class DoctorController {
         doctorService.deleteDoctor(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Doctor data is public: shared caches such as nginx may keep it for max-age, then revalidate with the ETag
+    private CacheControl doctorCacheControl() {
+        return CacheControl.maxAge(DurationStyle.detectAndParse(doctorsMaxAge)).cachePublic().mustRevalidate();
+    }
 }
@@ -0,0 +1,33 @@
+package com.doctorchannel.controller;
+
+import com.doctorchannel.dto.CursorPage;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+// List endpoints keep returning a plain JSON array; the cursor for the next page travels in a header
+final class PageResponses {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(CursorPage<T> page) {
+        return of(page, ResponseEntity.ok());
+    }
+
+    static <T> ResponseEntity<List<T>> of(CursorPage<T> page, String etag, CacheControl cacheControl) {
+        // The tag depends on the representation asked for, even when the page is empty
+        return of(page, ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT));
+    }
+
+    private static <T> ResponseEntity<List<T>> of(CursorPage<T> page, ResponseEntity.BodyBuilder response) {
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
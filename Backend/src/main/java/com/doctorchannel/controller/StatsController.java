@@ -0,0 +1,63 @@
+package com.doctorchannel.controller;
+
+import com.doctorchannel.dto.DoctorLoadStats;
+import com.doctorchannel.service.AppointmentStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/api/stats")
+@Tag(name = "Stats", description = "Doctor load statistics for admin dashboards")
+public class StatsController {
+
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
+    @Value("${app.stats.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Operation(summary = "Get doctor load",
+            description = "Appointments per day by status, utilization and no-shows for a doctor over a date range (Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Doctor load statistics"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long date range"),
+        @ApiResponse(responseCode = "404", description = "Doctor not found")
+    })
+    @GetMapping("/doctors/{doctorId}")
+    public ResponseEntity<DoctorLoadStats> getDoctorStats(
+            @Parameter(description = "Doctor ID") @PathVariable String doctorId,
+            @Parameter(description = "First day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(appointmentStatsService.getDoctorStats(doctorId, from, to));
+    }
+
+    @Operation(summary = "Rebuild doctor load statistics",
+            description = "Recount every doctor-day from hot and archived appointments (Admin)")
+    @ApiResponse(responseCode = "204", description = "Statistics rebuilt")
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        appointmentStatsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
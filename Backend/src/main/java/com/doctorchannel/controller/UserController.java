@@ -1,7 +1,9 @@
 package com.doctorchannel.controller;
 
+import com.doctorchannel.dto.PageQuery;
 import com.doctorchannel.model.User;
 import com.doctorchannel.service.UserService;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,8 +20,8 @@ public class UserController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<User>> getAllUsers(@ParameterObject PageQuery page) {
+        return PageResponses.of(userService.getUsers(page));
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,86 @@
+package com.doctorchannel.controller;
+
+import com.doctorchannel.config.AppointmentAccess;
+import com.doctorchannel.model.WaitlistEntry;
+import com.doctorchannel.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@Tag(name = "Waitlist", description = "Wait for a cancelled slot instead of polling for one")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Operation(summary = "Join a waitlist",
+            description = "Wait for any slot with a doctor on a day; the first freed slot is booked for the patient at the head of the queue. Patients join as themselves; Admins may join for any user")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Waiting (or already was)"),
+        @ApiResponse(responseCode = "400", description = "Missing fields, past day, or a day the doctor does not work"),
+        @ApiResponse(responseCode = "404", description = "Doctor not found"),
+        @ApiResponse(responseCode = "409", description = "Waitlist for the day is full")
+    })
+    @PostMapping
+    public ResponseEntity<WaitlistEntry> join(@RequestBody WaitlistEntry request, Authentication caller) {
+        // Patients join for themselves; priority is for admins to set on an existing entry
+        if (!AppointmentAccess.isAdmin(caller)) {
+            request.setUserId(caller.getName());
+        }
+        request.setPriority(0);
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.join(request));
+    }
+
+    @Operation(summary = "Get user's waitlist entries",
+            description = "Entries for today and later, including ones already booked into an appointment (own ID, or Admin)")
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<WaitlistEntry>> getUserEntries(
+            @Parameter(description = "User ID") @PathVariable String userId) {
+        return ResponseEntity.ok(waitlistService.getUserEntries(userId));
+    }
+
+    @Operation(summary = "Get a doctor's waitlist", description = "Waiting entries for a day, in the order slots go to them (Admin)")
+    @GetMapping("/doctor/{doctorId}")
+    public ResponseEntity<List<WaitlistEntry>> getQueue(
+            @Parameter(description = "Doctor ID") @PathVariable String doctorId,
+            @Parameter(description = "Day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(waitlistService.getQueue(doctorId, date));
+    }
+
+    @Operation(summary = "Set waitlist priority", description = "Higher priority entries are offered slots first (Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Priority updated"),
+        @ApiResponse(responseCode = "404", description = "No waiting entry with this ID")
+    })
+    @PutMapping("/{id}/priority")
+    public ResponseEntity<WaitlistEntry> setPriority(
+            @Parameter(description = "Waitlist entry ID") @PathVariable String id,
+            @Parameter(description = "New priority") @RequestParam int priority) {
+        return ResponseEntity.ok(waitlistService.setPriority(id, priority));
+    }
+
+    @Operation(summary = "Leave a waitlist", description = "Remove a waiting entry (own entry, or Admin)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Left the waitlist"),
+        @ApiResponse(responseCode = "404", description = "No waiting entry with this ID")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leave(@Parameter(description = "Waitlist entry ID") @PathVariable String id) {
+        waitlistService.leave(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,5 +1,43 @@
 package com.doctorchannel.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Compact view of an Appointment: short names, nulls left out, times as epoch seconds in the server's zone
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AppointmentDTO {
-    
+    private String id;
+
+    @JsonProperty("u")
+    private String userId;
+
+    @JsonProperty("d")
+    private String doctorId;
+
+    @JsonProperty("p")
+    private String patientName;
+
+    @JsonProperty("t")
+    private Long appointmentTime;
+
+    @JsonProperty("st")
+    private String status;
+
+    @JsonProperty("po")
+    private String paymentOption;
+
+    @JsonProperty("ps")
+    private String paymentStatus;
+
+    @JsonProperty("ut")
+    private Long updatedAt;
+
+    @JsonProperty("v")
+    private Long version;
 }
@@ -0,0 +1,27 @@
+package com.doctorchannel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+    public static final String INSERTED = "INSERTED";
+    public static final String UPDATED = "UPDATED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+    public static final String DUPLICATE = "DUPLICATE";
+
+    private int index; // position in the request array
+    private String id;
+    private String result;
+    private String message;
+
+    public boolean isSuccess() {
+        return INSERTED.equals(result) || UPDATED.equals(result);
+    }
+}
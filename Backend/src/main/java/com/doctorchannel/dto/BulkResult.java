@@ -0,0 +1,22 @@
+package com.doctorchannel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> items; // one per request item, in request order
+
+    public static BulkResult of(List<BulkItemResult> items) {
+        int succeeded = (int) items.stream().filter(BulkItemResult::isSuccess).count();
+        return new BulkResult(items.size(), succeeded, items.size() - succeeded, items);
+    }
+}
@@ -1,5 +1,46 @@
 package com.doctorchannel.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Compact view of a Doctor for list screens: one-letter names, nulls left out
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class DoctorDTO {
-    
+    private String id;
+
+    @JsonProperty("n")
+    private String name;
+
+    @JsonProperty("s")
+    private String specialty;
+
+    @JsonProperty("c")
+    private String city;
+
+    @JsonProperty("h")
+    private String hospitalName;
+
+    @JsonProperty("f")
+    private Double consultationFee;
+
+    @JsonProperty("i")
+    private String imageUrl;
+
+    @JsonProperty("d")
+    private Integer availableDays; // bit 0 = Monday ... bit 6 = Sunday
+
+    @JsonProperty("m")
+    private Integer slotDuration;
+
+    @JsonProperty("a")
+    private Boolean active;
+
+    @JsonProperty("v")
+    private Long version;
 }
@@ -0,0 +1,33 @@
+package com.doctorchannel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorLoadStats {
+    private String doctorId;
+    private LocalDate from;
+    private LocalDate to;
+    private Map<String, Integer> counts; // status -> appointments over the range
+    private int booked;                  // everything not cancelled
+    private Integer capacity;            // slots on working days under the current schedule; null without one
+    private Double utilization;          // booked / capacity
+    private int noShows;                 // past appointments still PENDING or CONFIRMED
+    private Double noShowRate;           // noShows / booked on past days
+    private List<Day> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private Map<String, Integer> counts;
+    }
+}
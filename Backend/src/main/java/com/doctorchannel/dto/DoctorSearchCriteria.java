@@ -0,0 +1,20 @@
+package com.doctorchannel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Bound from GET /api/doctors/search; every criterion is optional and they are combined with AND
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSearchCriteria {
+    private String specialty;
+    private String city;
+    private Boolean active;
+    private Double minFee;
+    private Double maxFee;
+    private List<String> availableDays;
+}
@@ -0,0 +1,18 @@
+package com.doctorchannel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Bound from ?after=<id>&limit=&sort=field[,asc|desc]&fields=a,b
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageQuery {
+    private String after;
+    private Integer limit;
+    private String sort;
+    private List<String> fields;
+}
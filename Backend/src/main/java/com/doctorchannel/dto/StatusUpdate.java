@@ -0,0 +1,13 @@
+package com.doctorchannel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusUpdate {
+    private String id;
+    private String status; // "PENDING", "CONFIRMED", "CANCELLED", "COMPLETED"
+}
@@ -4,12 +4,25 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "appointments")
+@CompoundIndexes({
+    @CompoundIndex(name = "doctor_slot_unique", def = "{'doctor_id': 1, 'slot_start': 1}",
+            unique = true, partialFilter = "{'slot_start': {$exists: true}}"),
+    // Equality field first, date last, so per-doctor/user/status lookups and their date ranges share one index
+    @CompoundIndex(name = "doctor_date", def = "{'doctor_id': 1, 'appointment_date_time': 1}"),
+    @CompoundIndex(name = "user_date", def = "{'user_id': 1, 'appointment_date_time': 1}"),
+    @CompoundIndex(name = "status_date", def = "{'status': 1, 'appointment_date_time': 1}"),
+    // Cross-doctor date ranges (slot index rebuild, exports)
+    @CompoundIndex(name = "date", def = "{'appointment_date_time': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +43,10 @@ public class Appointment {
     
     @Field("appointment_date_time")
     private LocalDateTime appointmentDateTime;
+
+    // Start of the booked slot; unset once cancelled so the slot can be taken again
+    @Field("slot_start")
+    private LocalDateTime slotStart;
     
     private String status; // "PENDING", "CONFIRMED", "CANCELLED", "COMPLETED"
     private String symptoms;
@@ -45,6 +62,9 @@ public class Appointment {
     
     @Field("updated_at")
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
     
     // MongoDB doesn't support @PrePersist/@PreUpdate, use lifecycle methods or service layer
     public void onCreate() {
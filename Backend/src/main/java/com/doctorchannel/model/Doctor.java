@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -11,6 +14,18 @@ import org.springframework.data.mongodb.core.mapping.Field;
 import java.util.List;
 
 @Document(collection = "doctors")
+// Equality fields first, fee range last; case-insensitive collation shared with DoctorRepositoryCustomImpl.search
+@CompoundIndexes({
+    @CompoundIndex(name = "specialty_city_active_fee",
+            def = "{'specialty': 1, 'city': 1, 'is_active': 1, 'consultation_fee': 1}",
+            collation = "{'locale': 'en', 'strength': 2}"),
+    @CompoundIndex(name = "city_active_fee",
+            def = "{'city': 1, 'is_active': 1, 'consultation_fee': 1}",
+            collation = "{'locale': 'en', 'strength': 2}"),
+    @CompoundIndex(name = "active_fee",
+            def = "{'is_active': 1, 'consultation_fee': 1}",
+            collation = "{'locale': 'en', 'strength': 2}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,4 +69,8 @@ public class Doctor {
     
     @Field("is_active")
     private Boolean isActive = true;
+
+    // Bumped on every update; send it back on updates to be rejected instead of overwriting newer changes
+    @Version
+    private Long version;
 }
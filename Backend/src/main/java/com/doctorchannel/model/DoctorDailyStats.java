@@ -0,0 +1,39 @@
+package com.doctorchannel.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Appointments per doctor per day by status, kept up to date with $inc as appointments change
+@Document(collection = "doctor_daily_stats")
+@CompoundIndex(name = "doctor_day", def = "{'doctor_id': 1, 'day': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorDailyStats {
+
+    @Id
+    private String id; // doctorId:yyyy-MM-dd
+
+    @Field("doctor_id")
+    private String doctorId;
+
+    private LocalDate day;
+
+    private Map<String, Integer> counts; // status -> appointments
+
+    @Field("rebuilt_at")
+    private LocalDateTime rebuiltAt;
+
+    public static String key(String doctorId, LocalDate day) {
+        return doctorId + ":" + day;
+    }
+}
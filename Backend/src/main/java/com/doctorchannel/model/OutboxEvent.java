@@ -0,0 +1,66 @@
+package com.doctorchannel.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+// An appointment change waiting to be delivered to the notification sinks
+@Document(collection = "outbox_events")
+@CompoundIndex(name = "status_created", def = "{'status': 1, 'created_at': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public static final String APPOINTMENT_CREATED = "APPOINTMENT_CREATED";
+    public static final String APPOINTMENT_STATUS_CHANGED = "APPOINTMENT_STATUS_CHANGED";
+    public static final String APPOINTMENT_DELETED = "APPOINTMENT_DELETED";
+
+    public static final String PENDING = "PENDING";
+    public static final String DELIVERED = "DELIVERED";
+    public static final String FAILED = "FAILED"; // gave up after app.outbox.max-attempts
+
+    @Id
+    private String id;
+
+    private String type;
+
+    @Field("appointment_id")
+    private String appointmentId;
+
+    @Field("doctor_id")
+    private String doctorId;
+
+    private Long sequence; // appointment version after the change; orders one appointment's events
+
+    @Field("previous_status")
+    private String previousStatus;
+
+    // Snapshot after the change (before it, for a delete). Bulk status updates only carry id, doctor, time,
+    // status and version.
+    private Appointment appointment;
+
+    private String status;
+
+    private int attempts;
+
+    @Field("next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Field("last_error")
+    private String lastError;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Indexed(name = "delivered_ttl", expireAfter = "7d")
+    @Field("delivered_at")
+    private LocalDateTime deliveredAt;
+}
@@ -1,9 +1,11 @@
 package com.doctorchannel.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -21,6 +23,8 @@ public class User {
     @Field("email")
     private String email;
     
+    // Accepted on register/update, never written back out
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Field("password")
     private String password;
     
@@ -32,4 +36,7 @@ public class User {
     
     @Field("is_active")
     private Boolean isActive = true;
+
+    @Version
+    private Long version;
 }
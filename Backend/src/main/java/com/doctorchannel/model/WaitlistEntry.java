@@ -0,0 +1,78 @@
+package com.doctorchannel.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A patient waiting for any slot with a doctor on one day. The queue for a doctor-day is its WAITING entries
+// ordered by priority (highest first), then by when they joined.
+@Document(collection = "waitlist_entries")
+@CompoundIndexes({
+    // Matches the head-of-queue lookup: equality on doctor, day and status, then the queue order
+    @CompoundIndex(name = "queue", def = "{'doctor_id': 1, 'day': 1, 'status': 1, 'priority': -1, 'created_at': 1}"),
+    // One place in a queue per patient
+    @CompoundIndex(name = "user_waiting_unique", def = "{'doctor_id': 1, 'day': 1, 'user_id': 1}",
+            unique = true, partialFilter = "{'status': 'WAITING'}"),
+    @CompoundIndex(name = "user_day", def = "{'user_id': 1, 'day': 1}"),
+    @CompoundIndex(name = "status_claimed", def = "{'status': 1, 'claimed_at': 1}")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+
+    public static final String WAITING = "WAITING";
+    public static final String ASSIGNING = "ASSIGNING"; // claimed for a freed slot, booking in progress
+    public static final String ASSIGNED = "ASSIGNED";
+    public static final String LEFT = "LEFT";
+
+    @Id
+    private String id;
+
+    @Field("doctor_id")
+    private String doctorId;
+
+    private LocalDate day;
+
+    @Field("user_id")
+    private String userId;
+
+    // Copied onto the appointment booked for this entry
+    private String patientName;
+    private String patientEmail;
+    private String patientPhone;
+    private String symptoms;
+
+    @Field("payment_option")
+    private String paymentOption;
+
+    private int priority; // set by an admin; 0 for everyone else
+
+    private String status;
+
+    @Field("appointment_id")
+    private String appointmentId;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Field("claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Field("assigned_at")
+    private LocalDateTime assignedAt;
+
+    // The end of the day waited for; the entry is of no use after it
+    @Indexed(name = "expires_ttl", expireAfter = "0s")
+    @Field("expires_at")
+    private LocalDateTime expiresAt;
+}
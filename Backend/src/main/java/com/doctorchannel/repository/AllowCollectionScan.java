@@ -0,0 +1,15 @@
+package com.doctorchannel.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a derived query whose full collection scan is expected, so QueryPlanVerifier reports it without failing
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllowCollectionScan {
+    String value(); // why a scan is acceptable here
+}
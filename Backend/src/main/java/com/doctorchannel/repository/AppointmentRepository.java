@@ -8,10 +8,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AppointmentRepository extends MongoRepository<Appointment, String> {
+public interface AppointmentRepository extends MongoRepository<Appointment, String>, AppointmentRepositoryCustom {
     List<Appointment> findByUserId(String userId);
     List<Appointment> findByDoctorId(String doctorId);
     List<Appointment> findByStatus(String status);
     List<Appointment> findByDoctorIdAndAppointmentDateTimeBetween(
             String doctorId, LocalDateTime start, LocalDateTime end);
+    List<Appointment> findByAppointmentDateTimeBetween(LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,22 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.model.Appointment;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+public interface AppointmentRepositoryCustom {
+    CursorPage<Appointment> findPage(PageQuery page);
+    CursorPage<Appointment> findByUserId(String userId, PageQuery page);
+    CursorPage<Appointment> findByDoctorId(String doctorId, PageQuery page);
+
+    // The appointment as it was before the update; empty if it is missing, at another version, or does not
+    // match the guard
+    Optional<Appointment> updateFieldsIf(String id, Long expectedVersion, Criteria guard, Update update);
+
+    // The deleted appointment; empty if there was none, so of two concurrent deletes only one gets it back
+    Optional<Appointment> removeById(String id);
+}
@@ -0,0 +1,49 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.model.Appointment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+public class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public CursorPage<Appointment> findPage(PageQuery page) {
+        return keysetPager.findPage(Appointment.class, null, page);
+    }
+
+    @Override
+    public CursorPage<Appointment> findByUserId(String userId, PageQuery page) {
+        return keysetPager.findPage(Appointment.class, Criteria.where("userId").is(userId), page);
+    }
+
+    @Override
+    public CursorPage<Appointment> findByDoctorId(String doctorId, PageQuery page) {
+        return keysetPager.findPage(Appointment.class, Criteria.where("doctorId").is(doctorId), page);
+    }
+
+    @Override
+    public Optional<Appointment> updateFieldsIf(String id, Long expectedVersion, Criteria guard, Update update) {
+        return partialUpdater.updateIfReturningPrevious(Appointment.class, id, expectedVersion, guard, update);
+    }
+
+    @Override
+    public Optional<Appointment> removeById(String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Appointment.class));
+    }
+}
@@ -7,9 +7,15 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface DoctorRepository extends MongoRepository<Doctor, String> {
+public interface DoctorRepository extends MongoRepository<Doctor, String>, DoctorRepositoryCustom {
+    @AllowCollectionScan("fallback until the in-memory search index is ready")
     List<Doctor> findBySpecialtyContainingIgnoreCase(String specialty);
+
+    @AllowCollectionScan("fallback until the in-memory search index is ready")
     List<Doctor> findByNameContainingIgnoreCase(String name);
+
+    @AllowCollectionScan("fallback until the in-memory search index is ready")
     List<Doctor> findByCityContainingIgnoreCase(String city);
+
     List<Doctor> findByIsActive(Boolean isActive);
 }
@@ -0,0 +1,15 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.model.Doctor;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+public interface DoctorRepositoryCustom {
+    CursorPage<Doctor> findPage(PageQuery page);
+    CursorPage<Doctor> search(DoctorSearchCriteria criteria, PageQuery page);
+    Optional<Doctor> updateFields(String id, Long expectedVersion, Update update);
+}
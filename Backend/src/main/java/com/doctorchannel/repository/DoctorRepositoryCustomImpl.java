@@ -0,0 +1,76 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.model.Doctor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class DoctorRepositoryCustomImpl implements DoctorRepositoryCustom {
+
+    // Must match the collation of the compound indexes declared on Doctor
+    static final Collation SEARCH_COLLATION = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Override
+    public CursorPage<Doctor> findPage(PageQuery page) {
+        return keysetPager.findPage(Doctor.class, null, page);
+    }
+
+    @Override
+    public CursorPage<Doctor> search(DoctorSearchCriteria criteria, PageQuery page) {
+        return keysetPager.findPage(Doctor.class, toCriteria(criteria), page, SEARCH_COLLATION);
+    }
+
+    @Override
+    public Optional<Doctor> updateFields(String id, Long expectedVersion, Update update) {
+        return partialUpdater.update(Doctor.class, id, expectedVersion, update);
+    }
+
+    static Criteria toCriteria(DoctorSearchCriteria search) {
+        List<Criteria> parts = new ArrayList<>();
+        if (hasText(search.getSpecialty())) {
+            parts.add(Criteria.where("specialty").is(search.getSpecialty().trim()));
+        }
+        if (hasText(search.getCity())) {
+            parts.add(Criteria.where("city").is(search.getCity().trim()));
+        }
+        if (search.getActive() != null) {
+            parts.add(Criteria.where("isActive").is(search.getActive()));
+        }
+        if (search.getMinFee() != null || search.getMaxFee() != null) {
+            Criteria fee = Criteria.where("consultationFee");
+            if (search.getMinFee() != null) {
+                fee.gte(search.getMinFee());
+            }
+            if (search.getMaxFee() != null) {
+                fee.lte(search.getMaxFee());
+            }
+            parts.add(fee);
+        }
+        if (search.getAvailableDays() != null && !search.getAvailableDays().isEmpty()) {
+            parts.add(Criteria.where("availableDays").all(search.getAvailableDays()));
+        }
+
+        if (parts.isEmpty()) {
+            return null;
+        }
+        return parts.size() == 1 ? parts.get(0) : new Criteria().andOperator(parts.toArray(new Criteria[0]));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
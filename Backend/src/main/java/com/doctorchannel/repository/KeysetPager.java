@@ -0,0 +1,137 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.exception.InvalidRequestException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Shared keyset pagination for the repository fragments: pages are ordered by (sort field, _id)
+@Component
+public class KeysetPager {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.pagination.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${app.pagination.max-limit:500}")
+    private int maxLimit;
+
+    public <T> CursorPage<T> findPage(Class<T> type, Criteria filter, PageQuery page) {
+        return findPage(type, filter, page, null);
+    }
+
+    // The collation must match the one declared on the index the filter is meant to use
+    public <T> CursorPage<T> findPage(Class<T> type, Criteria filter, PageQuery page, Collation collation) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type);
+
+        int limit = page.getLimit() == null ? defaultLimit : Math.max(1, Math.min(page.getLimit(), maxLimit));
+        Sort.Direction direction = Sort.Direction.ASC;
+        MongoPersistentProperty sortProperty = entity.getRequiredIdProperty();
+        if (page.getSort() != null && !page.getSort().isBlank()) {
+            String[] parts = page.getSort().split(",");
+            sortProperty = property(entity, parts[0].trim());
+            if (parts.length > 1) {
+                direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new InvalidRequestException("Invalid sort direction: " + parts[1]));
+            }
+        }
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter != null) {
+            criteria.add(filter);
+        }
+        if (page.getAfter() != null && !page.getAfter().isBlank()) {
+            Criteria keyset = keyset(entity, sortProperty, direction, page.getAfter());
+            if (keyset == null) {
+                // Cursor points at a document that no longer exists
+                return new CursorPage<>(List.of(), null);
+            }
+            criteria.add(keyset);
+        }
+
+        Query query = new Query();
+        if (collation != null) {
+            query.collation(collation);
+        }
+        if (!criteria.isEmpty()) {
+            query.addCriteria(criteria.size() == 1 ? criteria.get(0)
+                    : new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        }
+        query.with(Sort.by(direction, sortProperty.getName()).and(Sort.by(direction, "id")));
+        query.limit(limit + 1);
+        if (page.getFields() != null && !page.getFields().isEmpty()) {
+            for (String field : page.getFields()) {
+                query.fields().include(property(entity, field.trim()).getName());
+            }
+            query.fields().include(sortProperty.getName());
+        }
+
+        List<T> items = mongoTemplate.find(query, type);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            Object lastId = entity.getIdentifierAccessor(items.get(limit - 1)).getIdentifier();
+            nextCursor = lastId == null ? null : lastId.toString();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    // (sort > v) or (sort == v and _id > after), flipped for descending order. Null and missing values sort
+    // before everything else, and a range operator never matches them, so they get their own branches.
+    private Criteria keyset(MongoPersistentEntity<?> entity, MongoPersistentProperty sortProperty,
+                            Sort.Direction direction, String after) {
+        boolean ascending = direction.isAscending();
+        if (sortProperty.isIdProperty()) {
+            Criteria id = Criteria.where("id");
+            return ascending ? id.gt(after) : id.lt(after);
+        }
+
+        Object anchorKey = ObjectId.isValid(after) ? new ObjectId(after) : after;
+        Query anchorQuery = new Query(Criteria.where("_id").is(anchorKey));
+        anchorQuery.fields().include(sortProperty.getName());
+        Document anchor = mongoTemplate.findOne(anchorQuery, Document.class, entity.getCollection());
+        if (anchor == null) {
+            return null;
+        }
+        Object anchorId = anchor.get("_id");
+        Object value = anchor.get(sortProperty.getFieldName());
+
+        String field = sortProperty.getFieldName();
+        Criteria tie = new Criteria().andOperator(
+                Criteria.where(field).is(value),
+                ascending ? Criteria.where("_id").gt(anchorId) : Criteria.where("_id").lt(anchorId));
+        if (value == null) {
+            // Ascending, every non-null value is still ahead; descending, only the remaining nulls are
+            return ascending ? new Criteria().orOperator(tie, Criteria.where(field).ne(null)) : tie;
+        }
+        if (ascending) {
+            return new Criteria().orOperator(Criteria.where(field).gt(value), tie);
+        }
+        return new Criteria().orOperator(Criteria.where(field).lt(value), tie, Criteria.where(field).is(null));
+    }
+
+    private static MongoPersistentProperty property(MongoPersistentEntity<?> entity, String name) {
+        MongoPersistentProperty property = entity.getPersistentProperty(name);
+        if (property == null) {
+            throw new InvalidRequestException("Unknown field: " + name);
+        }
+        return property;
+    }
+}
@@ -0,0 +1,61 @@
+package com.doctorchannel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Single-round-trip updates of @Version'ed documents: only the given fields change, the version is bumped,
+// and the new state comes back from the same findAndModify. Documents written before versioning have no
+// version field; the first update sets it to 1.
+@Component
+public class PartialUpdater {
+
+    static final String VERSION = "version";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Empty if there is no such document. With an expected version, a document changed since that version
+    // was read fails with OptimisticLockingFailureException instead of being overwritten.
+    public <T> Optional<T> update(Class<T> type, String id, Long expectedVersion, Update update) {
+        Optional<T> updated = updateIf(type, id, expectedVersion, null, update);
+        if (updated.isEmpty() && expectedVersion != null
+                && mongoTemplate.exists(new Query(Criteria.where("id").is(id)), type)) {
+            throw new OptimisticLockingFailureException(
+                    type.getSimpleName() + " " + id + " was modified after version " + expectedVersion);
+        }
+        return updated;
+    }
+
+    // Empty if the document is missing, at another version, or does not match the guard
+    public <T> Optional<T> updateIf(Class<T> type, String id, Long expectedVersion, Criteria guard, Update update) {
+        return findAndModify(type, id, expectedVersion, guard, update, true);
+    }
+
+    // As updateIf, but returns the document as it was before the update
+    public <T> Optional<T> updateIfReturningPrevious(Class<T> type, String id, Long expectedVersion, Criteria guard,
+                                                     Update update) {
+        return findAndModify(type, id, expectedVersion, guard, update, false);
+    }
+
+    private <T> Optional<T> findAndModify(Class<T> type, String id, Long expectedVersion, Criteria guard,
+                                          Update update, boolean returnNew) {
+        Criteria filter = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            filter.and(VERSION).is(expectedVersion);
+        }
+        Query query = new Query(filter);
+        if (guard != null) {
+            query.addCriteria(guard);
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update.inc(VERSION, 1),
+                FindAndModifyOptions.options().returnNew(returnNew), type));
+    }
+}
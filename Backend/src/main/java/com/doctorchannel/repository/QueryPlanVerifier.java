@@ -0,0 +1,190 @@
+package com.doctorchannel.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Runs explain() for every derived query on the application's repositories, blocking and reactive, once the
+// indexes have been created. Winning plans that scan the whole collection are listed and, unless the method
+// carries @AllowCollectionScan, fail startup when app.query-plan-check.fail-on-collection-scan is set.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.query-plan-check.enabled", havingValue = "true")
+public class QueryPlanVerifier {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.query-plan-check.fail-on-collection-scan:true}")
+    private boolean failOnCollectionScan;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        List<String> violations = new ArrayList<>();
+        int checked = 0;
+
+        for (String name : applicationContext.getBeanNamesForType(RepositoryFactoryInformation.class, false, false)) {
+            RepositoryInformation repository = applicationContext.getBean(name, RepositoryFactoryInformation.class)
+                    .getRepositoryInformation();
+            Class<?> domainType = repository.getDomainType();
+            MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                    .getRequiredPersistentEntity(domainType);
+
+            for (Method method : repository.getQueryMethods()) {
+                if (AnnotatedElementUtils.hasAnnotation(method, org.springframework.data.mongodb.repository.Query.class)) {
+                    continue;
+                }
+                String label = repository.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                Query query = sampleQuery(new PartTree(method.getName(), domainType));
+                Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(domainType))
+                        .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                        .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                        .explain();
+                checked++;
+
+                if (!scansCollection(explain)) {
+                    continue;
+                }
+                AllowCollectionScan allowed = AnnotatedElementUtils.findMergedAnnotation(method, AllowCollectionScan.class);
+                if (allowed != null) {
+                    log.info("Query plan for {} is a collection scan (allowed: {})", label, allowed.value());
+                } else {
+                    violations.add(label);
+                }
+            }
+        }
+
+        if (violations.isEmpty()) {
+            log.info("Query plans verified for {} derived queries", checked);
+        } else if (failOnCollectionScan) {
+            throw new IllegalStateException("Derived queries without a usable index (COLLSCAN): " + violations);
+        } else {
+            log.warn("Derived queries without a usable index (COLLSCAN): {}", violations);
+        }
+    }
+
+    // Works for classic and slot-based (SBE) explain output, and for the per-shard plans of a mongos
+    static boolean scansCollection(Document explain) {
+        Object planner = explain.get("queryPlanner");
+        return planner instanceof Document queryPlanner && containsStage(queryPlanner.get("winningPlan"), "COLLSCAN");
+    }
+
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Same shape as the query Spring Data derives from the method name, with placeholder values;
+    // the planner picks an index from the shape, not the values
+    static Query sampleQuery(PartTree tree) {
+        List<Criteria> alternatives = new ArrayList<>();
+        for (PartTree.OrPart or : tree) {
+            List<Criteria> parts = new ArrayList<>();
+            for (Part part : or) {
+                parts.add(criteria(part));
+            }
+            alternatives.add(parts.size() == 1 ? parts.get(0) : new Criteria().andOperator(parts));
+        }
+
+        Query query = new Query();
+        if (alternatives.size() == 1) {
+            query.addCriteria(alternatives.get(0));
+        } else if (!alternatives.isEmpty()) {
+            query.addCriteria(new Criteria().orOperator(alternatives));
+        }
+        return query.with(tree.getSort());
+    }
+
+    private static Criteria criteria(Part part) {
+        PropertyPath property = part.getProperty();
+        Criteria criteria = Criteria.where(property.toDotPath());
+        Object sample = sample(property.getLeafType());
+        String options = part.shouldIgnoreCase() == Part.IgnoreCaseType.NEVER ? null : "i";
+        String text = Pattern.quote(String.valueOf(sample));
+
+        return switch (part.getType()) {
+            case BETWEEN -> criteria.gte(sample).lte(sample);
+            case GREATER_THAN, AFTER -> criteria.gt(sample);
+            case GREATER_THAN_EQUAL -> criteria.gte(sample);
+            case LESS_THAN, BEFORE -> criteria.lt(sample);
+            case LESS_THAN_EQUAL -> criteria.lte(sample);
+            case IN -> criteria.in(sample);
+            case NOT_IN -> criteria.nin(sample);
+            case NEGATING_SIMPLE_PROPERTY -> criteria.ne(sample);
+            case TRUE -> criteria.is(true);
+            case FALSE -> criteria.is(false);
+            case IS_NULL -> criteria.is(null);
+            case IS_NOT_NULL -> criteria.ne(null);
+            case EXISTS -> criteria.exists(true);
+            case STARTING_WITH -> criteria.regex("^" + text, options);
+            case ENDING_WITH -> criteria.regex(text + "$", options);
+            case CONTAINING, LIKE, REGEX -> criteria.regex(text, options);
+            default -> criteria.is(sample);
+        };
+    }
+
+    private static Object sample(Class<?> type) {
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 0;
+        }
+        if (type == Long.class || type == long.class) {
+            return 0L;
+        }
+        if (type == Double.class || type == double.class) {
+            return 0.0;
+        }
+        return "sample";
+    }
+}
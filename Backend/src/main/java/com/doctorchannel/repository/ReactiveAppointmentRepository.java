@@ -0,0 +1,14 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.model.Appointment;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReactiveAppointmentRepository extends ReactiveMongoRepository<Appointment, String> {
+    Flux<Appointment> findByDoctorIdAndAppointmentDateTimeBetweenOrderByAppointmentDateTime(
+            String doctorId, LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,11 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.model.Doctor;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveDoctorRepository extends ReactiveMongoRepository<Doctor, String>, ReactiveDoctorRepositoryCustom {
+    Flux<Doctor> findByIsActive(Boolean isActive);
+}
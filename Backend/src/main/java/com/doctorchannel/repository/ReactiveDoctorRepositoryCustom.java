@@ -0,0 +1,9 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.model.Doctor;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveDoctorRepositoryCustom {
+    Flux<Doctor> search(DoctorSearchCriteria criteria);
+}
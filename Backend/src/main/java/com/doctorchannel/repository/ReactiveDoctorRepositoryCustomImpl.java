@@ -0,0 +1,26 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.model.Doctor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+public class ReactiveDoctorRepositoryCustomImpl implements ReactiveDoctorRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    // Same filter and collation as the blocking search, so both hit the doctor compound indexes
+    @Override
+    public Flux<Doctor> search(DoctorSearchCriteria criteria) {
+        Criteria filter = DoctorRepositoryCustomImpl.toCriteria(criteria);
+        Query query = (filter == null ? new Query() : new Query(filter))
+                .collation(DoctorRepositoryCustomImpl.SEARCH_COLLATION)
+                .with(Sort.by("name", "id"));
+        return reactiveMongoTemplate.find(query, Doctor.class);
+    }
+}
@@ -0,0 +1,17 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.model.User;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    CursorPage<User> findPage(PageQuery page);
+
+    Optional<User> updateFields(String id, Long expectedVersion, Update update);
+
+    // Swaps the stored hash only if it is still expectedHash; false if the password changed meanwhile
+    boolean replacePasswordHash(String id, String expectedHash, String newHash);
+}
@@ -0,0 +1,41 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Override
+    public CursorPage<User> findPage(PageQuery page) {
+        return keysetPager.findPage(User.class, null, page);
+    }
+
+    @Override
+    public Optional<User> updateFields(String id, Long expectedVersion, Update update) {
+        return partialUpdater.update(User.class, id, expectedVersion, update);
+    }
+
+    @Override
+    public boolean replacePasswordHash(String id, String expectedHash, String newHash) {
+        Query query = new Query(Criteria.where("id").is(id).and("password").is(expectedHash));
+        return mongoTemplate.updateFirst(query, Update.update("password", newHash), User.class)
+                .getModifiedCount() > 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.doctorchannel.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Off by default; every instance may run it, since a move is safe to repeat
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class AppointmentArchiveJob {
+
+    @Autowired
+    private AppointmentArchiveService appointmentArchiveService;
+
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void run() {
+        try {
+            appointmentArchiveService.archive();
+        } catch (RuntimeException e) {
+            // Whatever was copied but not deleted is picked up again by the next run
+            log.warn("Appointment archival failed: {}", e.getMessage());
+        }
+    }
+}
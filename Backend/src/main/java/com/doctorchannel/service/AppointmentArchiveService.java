@@ -0,0 +1,172 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Moves appointments older than app.archive.horizon out of the hot collection into one collection per month
+// (appointments_archive_yyyy_MM), and reads history across both
+@Slf4j
+@Service
+public class AppointmentArchiveService {
+
+    static final String HOT_COLLECTION = "appointments";
+    static final String ARCHIVE_PREFIX = "appointments_archive_";
+    private static final String DATE_FIELD = "appointment_date_time";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.archive.horizon:365d}")
+    private String horizon;
+
+    @Value("${app.archive.batch-size:1000}")
+    private int batchSize;
+
+    private final Set<String> indexedCollections = ConcurrentHashMap.newKeySet();
+
+    public int archive() {
+        LocalDateTime cutoff = LocalDate.now().atStartOfDay().minus(DurationStyle.detectAndParse(horizon));
+        int moved = 0;
+        int batch;
+        do {
+            batch = archiveBatch(cutoff);
+            moved += batch;
+        } while (batch == batchSize);
+        if (moved > 0) {
+            log.info("Archived {} appointments older than {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    // Copy first, then delete: a run that dies in between leaves rows in both places, which the next run
+    // re-copies (upsert by _id) and deletes, and which history reads de-duplicate. Each delete only matches the
+    // version that was copied, so a row changed in between stays hot with its newer state.
+    int archiveBatch(LocalDateTime cutoff) {
+        // Raw documents, so archived rows keep every stored field; names here are the stored ones
+        Query oldest = new Query(Criteria.where(DATE_FIELD).lt(cutoff))
+                .with(Sort.by(DATE_FIELD))
+                .limit(batchSize);
+        List<Document> rows = mongoTemplate.find(oldest, Document.class, HOT_COLLECTION);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<WriteModel<Document>>> byCollection = new TreeMap<>();
+        Map<Object, String> archivedTo = new LinkedHashMap<>();
+        List<WriteModel<Document>> deletes = new ArrayList<>(rows.size());
+        for (Document row : rows) {
+            YearMonth month = YearMonth.from(row.getDate(DATE_FIELD).toInstant().atZone(ZoneId.systemDefault()));
+            String collection = collectionFor(month);
+            byCollection.computeIfAbsent(collection, name -> new ArrayList<>())
+                    .add(new ReplaceOneModel<>(Filters.eq("_id", row.get("_id")), row, new ReplaceOptions().upsert(true)));
+            archivedTo.put(row.get("_id"), collection);
+            // eq null also matches rows saved before the version field existed
+            deletes.add(new DeleteOneModel<>(Filters.and(Filters.eq("_id", row.get("_id")), Filters.eq("version", row.get("version")))));
+        }
+        byCollection.forEach((name, writes) -> {
+            ensureIndexes(name);
+            mongoTemplate.getCollection(name).bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        });
+
+        int moved = mongoTemplate.getCollection(HOT_COLLECTION)
+                .bulkWrite(deletes, new BulkWriteOptions().ordered(false)).getDeletedCount();
+        if (moved < rows.size()) {
+            dropStaleCopies(archivedTo);
+        }
+        meterRegistry.counter("appointments.archived").increment(moved);
+        return moved;
+    }
+
+    // Rows still hot changed after they were copied; their archive copies are dropped so history never shows
+    // the old state, and the next run archives them again if they are still past the horizon
+    private void dropStaleCopies(Map<Object, String> archivedTo) {
+        Query stillHot = new Query(Criteria.where("_id").in(archivedTo.keySet()));
+        stillHot.fields().include("_id");
+        Map<String, List<Object>> byCollection = new TreeMap<>();
+        for (Document row : mongoTemplate.find(stillHot, Document.class, HOT_COLLECTION)) {
+            byCollection.computeIfAbsent(archivedTo.get(row.get("_id")), name -> new ArrayList<>()).add(row.get("_id"));
+        }
+        byCollection.forEach((name, ids) -> mongoTemplate.getCollection(name).deleteMany(Filters.in("_id", ids)));
+    }
+
+    public List<Appointment> getUserHistory(String userId, LocalDate from, LocalDate to) {
+        return history("userId", userId, from, to);
+    }
+
+    public List<Appointment> getDoctorHistory(String doctorId, LocalDate from, LocalDate to) {
+        return history("doctorId", doctorId, from, to);
+    }
+
+    // Hot and archived appointments, newest first; only the archive collections for months in range are read
+    private List<Appointment> history(String field, String value, LocalDate from, LocalDate to) {
+        Query query = new Query(Criteria.where(field).is(value)
+                .and("appointmentDateTime").gte(from.atStartOfDay()).lt(to.plusDays(1).atStartOfDay()));
+
+        // Hot rows win over a copy left behind by an interrupted archive run
+        Map<String, Appointment> byId = new LinkedHashMap<>();
+        for (Appointment appointment : mongoTemplate.find(query, Appointment.class, HOT_COLLECTION)) {
+            byId.put(appointment.getId(), appointment);
+        }
+        Set<String> existing = mongoTemplate.getCollectionNames();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            String name = collectionFor(month);
+            if (existing.contains(name)) {
+                for (Appointment appointment : mongoTemplate.find(query, Appointment.class, name)) {
+                    byId.putIfAbsent(appointment.getId(), appointment);
+                }
+            }
+        }
+
+        List<Appointment> result = new ArrayList<>(byId.values());
+        result.sort(Comparator.comparing(Appointment::getAppointmentDateTime).reversed());
+        return result;
+    }
+
+    static String collectionFor(YearMonth month) {
+        return String.format("%s%04d_%02d", ARCHIVE_PREFIX, month.getYear(), month.getMonthValue());
+    }
+
+    private void ensureIndexes(String collection) {
+        if (indexedCollections.contains(collection)) {
+            return;
+        }
+        mongoTemplate.indexOps(collection).ensureIndex(new Index()
+                .on("user_id", Sort.Direction.ASC).on(DATE_FIELD, Sort.Direction.ASC).named("user_date"));
+        mongoTemplate.indexOps(collection).ensureIndex(new Index()
+                .on("doctor_id", Sort.Direction.ASC).on(DATE_FIELD, Sort.Direction.ASC).named("doctor_date"));
+        indexedCollections.add(collection);
+    }
+}
@@ -0,0 +1,315 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.dto.BulkItemResult;
+import com.doctorchannel.dto.BulkResult;
+import com.doctorchannel.dto.StatusUpdate;
+import com.doctorchannel.exception.InvalidRequestException;
+import com.doctorchannel.exception.ResourceNotFoundException;
+import com.doctorchannel.exception.SlotUnavailableException;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.OutboxEvent;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Applies clinic end-of-day files with unordered bulk writes, in chunks of app.bulk.batch-size.
+// Each chunk costs one projected read to classify its rows and one bulkWrite; results come back per row.
+@Service
+public class AppointmentBulkService {
+
+    static final Set<String> STATUSES = Set.of("PENDING", "CONFIRMED", "CANCELLED", "COMPLETED");
+    private static final String CANCELLED = "CANCELLED";
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
+    @Autowired
+    private AppointmentOutbox appointmentOutbox;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Value("${app.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.bulk.max-items:50000}")
+    private int maxItems;
+
+    public BulkResult updateStatuses(List<StatusUpdate> updates) {
+        checkSize(updates);
+        BulkItemResult[] results = new BulkItemResult[updates.size()];
+        Set<String> seen = new HashSet<>();
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            updateChunk(updates, from, Math.min(from + batchSize, updates.size()), results, seen);
+        }
+        return BulkResult.of(Arrays.asList(results));
+    }
+
+    public BulkResult importAppointments(List<Appointment> appointments) {
+        checkSize(appointments);
+        BulkItemResult[] results = new BulkItemResult[appointments.size()];
+        for (int from = 0; from < appointments.size(); from += batchSize) {
+            importChunk(appointments, from, Math.min(from + batchSize, appointments.size()), results);
+        }
+        return BulkResult.of(Arrays.asList(results));
+    }
+
+    private void updateChunk(List<StatusUpdate> updates, int from, int to, BulkItemResult[] results, Set<String> seen) {
+        Set<String> ids = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            StatusUpdate update = updates.get(i);
+            if (update != null && hasText(update.getId())) {
+                ids.add(update.getId());
+            }
+        }
+        Map<String, Appointment> current = currentState(ids);
+
+        // Stored as is, so rows this batch wrote can be told apart afterwards
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class);
+        List<Integer> queued = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            StatusUpdate update = updates.get(i);
+            String id = update == null ? null : update.getId();
+            if (!hasText(id) || !STATUSES.contains(update.getStatus())) {
+                results[i] = new BulkItemResult(i, id, BulkItemResult.INVALID, "id and a valid status are required");
+                continue;
+            }
+            // Only the first change per appointment is applied; a repeat would be reported and counted again
+            if (!seen.add(id)) {
+                results[i] = new BulkItemResult(i, id, BulkItemResult.DUPLICATE, "id already appears earlier in this request");
+                continue;
+            }
+            Appointment existing = current.get(id);
+            if (existing == null) {
+                results[i] = new BulkItemResult(i, id, BulkItemResult.NOT_FOUND, null);
+                continue;
+            }
+            if (CANCELLED.equals(existing.getStatus()) && !CANCELLED.equals(update.getStatus())) {
+                // Re-activation has to win the slot back through the unique index; rare enough to do one by one
+                results[i] = reactivate(i, update);
+                continue;
+            }
+
+            Update set = Update.update("status", update.getStatus()).set("updatedAt", now).inc("version", 1);
+            if (CANCELLED.equals(update.getStatus())) {
+                set.unset("slotStart");
+            }
+            // Only from the status that was read: the daily stats move counts from it, and an appointment
+            // cancelled since the read is never revived without reclaiming its slot
+            Criteria filter = Criteria.where("id").is(id).and("status").is(existing.getStatus());
+            ops.updateOne(new Query(filter), set);
+            queued.add(i);
+        }
+        if (queued.isEmpty()) {
+            return;
+        }
+
+        Batch batch = execute(ops);
+        for (int op = 0; op < queued.size(); op++) {
+            int i = queued.get(op);
+            BulkWriteError error = batch.errors().get(op);
+            results[i] = error == null
+                    ? new BulkItemResult(i, updates.get(i).getId(), BulkItemResult.UPDATED, null)
+                    : new BulkItemResult(i, updates.get(i).getId(), BulkItemResult.FAILED, error.getMessage());
+        }
+        if (batch.matched() < queued.size() - batch.errors().size()) {
+            markConcurrentChanges(updates, queued, results, current, now);
+        }
+
+        List<AppointmentStatsService.Change> changes = new ArrayList<>();
+        List<Appointment> updated = new ArrayList<>();
+        List<String> previousStatuses = new ArrayList<>();
+        List<Appointment> freed = new ArrayList<>();
+        for (int i : queued) {
+            if (BulkItemResult.UPDATED.equals(results[i].getResult())) {
+                Appointment appointment = current.get(updates.get(i).getId());
+                String previous = appointment.getStatus();
+                appointment.setStatus(updates.get(i).getStatus());
+                appointment.setVersion(appointment.getVersion() == null ? 1L : appointment.getVersion() + 1);
+                slotAvailabilityIndex.apply(appointment);
+                changes.add(AppointmentStatsService.Change.statusChanged(appointment, previous));
+                updated.add(appointment);
+                previousStatuses.add(previous);
+                if (CANCELLED.equals(appointment.getStatus()) && !CANCELLED.equals(previous)) {
+                    freed.add(appointment);
+                }
+            }
+        }
+        appointmentStatsService.recordAll(changes);
+        appointmentOutbox.recordAll(OutboxEvent.APPOINTMENT_STATUS_CHANGED, updated, previousStatuses);
+        waitlistService.offerAll(freed);
+    }
+
+    private void importChunk(List<Appointment> appointments, int from, int to, BulkItemResult[] results) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class);
+        List<Integer> queued = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Appointment appointment = appointments.get(i);
+            if (appointment == null || !hasText(appointment.getDoctorId()) || appointment.getAppointmentDateTime() == null
+                    || (appointment.getStatus() != null && !STATUSES.contains(appointment.getStatus()))) {
+                results[i] = new BulkItemResult(i, appointment == null ? null : appointment.getId(),
+                        BulkItemResult.INVALID, "doctorId, appointmentDateTime and a valid status are required");
+                continue;
+            }
+
+            // Ids are assigned up front so every row can be reported, inserted or not
+            if (appointment.getId() == null) {
+                appointment.setId(new ObjectId().toHexString());
+            }
+            if (appointment.getStatus() == null) {
+                appointment.setStatus("PENDING");
+            }
+            if (appointment.getCreatedAt() == null) {
+                appointment.setCreatedAt(now);
+            }
+            appointment.setUpdatedAt(now);
+            appointment.setSlotStart(CANCELLED.equals(appointment.getStatus()) ? null
+                    : slotAvailabilityIndex.slotStart(appointment.getDoctorId(), appointment.getAppointmentDateTime()));
+            ops.insert(appointment);
+            queued.add(i);
+        }
+        if (queued.isEmpty()) {
+            return;
+        }
+
+        Batch batch = execute(ops);
+        List<AppointmentStatsService.Change> changes = new ArrayList<>();
+        List<Appointment> inserted = new ArrayList<>();
+        for (int op = 0; op < queued.size(); op++) {
+            int i = queued.get(op);
+            Appointment appointment = appointments.get(i);
+            BulkWriteError error = batch.errors().get(op);
+            if (error == null) {
+                results[i] = new BulkItemResult(i, appointment.getId(), BulkItemResult.INSERTED, null);
+                slotAvailabilityIndex.apply(appointment);
+                changes.add(AppointmentStatsService.Change.created(appointment));
+                inserted.add(appointment);
+            } else if (error.getCode() == DUPLICATE_KEY) {
+                results[i] = new BulkItemResult(i, appointment.getId(), BulkItemResult.CONFLICT,
+                        error.getMessage().contains("doctor_slot_unique")
+                                ? "Time slot not available" : "Appointment already exists");
+            } else {
+                results[i] = new BulkItemResult(i, appointment.getId(), BulkItemResult.FAILED, error.getMessage());
+            }
+        }
+        appointmentStatsService.recordAll(changes);
+        appointmentOutbox.recordAll(OutboxEvent.APPOINTMENT_CREATED, inserted, null);
+    }
+
+    private Batch execute(BulkOperations ops) {
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        BulkWriteResult result;
+        try {
+            result = ops.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error);
+            }
+            result = e.getResult();
+        }
+        return new Batch(errors, result.getMatchedCount());
+    }
+
+    private BulkItemResult reactivate(int index, StatusUpdate update) {
+        try {
+            appointmentService.updateAppointmentStatus(update.getId(), update.getStatus());
+            return new BulkItemResult(index, update.getId(), BulkItemResult.UPDATED, null);
+        } catch (SlotUnavailableException | OptimisticLockingFailureException e) {
+            return new BulkItemResult(index, update.getId(), BulkItemResult.CONFLICT, e.getMessage());
+        } catch (ResourceNotFoundException e) {
+            return new BulkItemResult(index, update.getId(), BulkItemResult.NOT_FOUND, null);
+        }
+    }
+
+    // Fewer matches than queued updates: something changed between the read and the write, so re-check those rows.
+    // Having the requested status is not enough, as another writer may have set it; a row counts as updated
+    // only if it carries this batch's version step and timestamp.
+    private void markConcurrentChanges(List<StatusUpdate> updates, List<Integer> queued, BulkItemResult[] results,
+                                       Map<String, Appointment> before, LocalDateTime writtenAt) {
+        Set<String> ids = new HashSet<>();
+        for (int i : queued) {
+            ids.add(updates.get(i).getId());
+        }
+        Map<String, Appointment> after = currentState(ids);
+        for (int i : queued) {
+            StatusUpdate update = updates.get(i);
+            Appointment appointment = after.get(update.getId());
+            if (BulkItemResult.UPDATED.equals(results[i].getResult())
+                    && (appointment == null || !writtenBy(appointment, update, before.get(update.getId()), writtenAt))) {
+                results[i] = new BulkItemResult(i, update.getId(),
+                        appointment == null ? BulkItemResult.NOT_FOUND : BulkItemResult.CONFLICT,
+                        appointment == null ? null : "Appointment changed concurrently");
+            }
+        }
+    }
+
+    private static boolean writtenBy(Appointment after, StatusUpdate update, Appointment before, LocalDateTime writtenAt) {
+        long readVersion = before.getVersion() == null ? 0 : before.getVersion();
+        return update.getStatus().equals(after.getStatus())
+                && after.getVersion() != null && after.getVersion() == readVersion + 1
+                && writtenAt.equals(after.getUpdatedAt());
+    }
+
+    private Map<String, Appointment> currentState(Collection<String> ids) {
+        Map<String, Appointment> byId = new HashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("status", "doctorId", "appointmentDateTime", "version", "updatedAt");
+        for (Appointment appointment : mongoTemplate.find(query, Appointment.class)) {
+            byId.put(appointment.getId(), appointment);
+        }
+        return byId;
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidRequestException("At least one item is required");
+        }
+        if (items.size() > maxItems) {
+            throw new InvalidRequestException("At most " + maxItems + " items per request");
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    // Failed operations by position in the batch (the others were applied) and the number of matched updates
+    private record Batch(Map<Integer, BulkWriteError> errors, int matched) {
+    }
+}
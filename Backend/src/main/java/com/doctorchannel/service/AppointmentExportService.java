@@ -0,0 +1,117 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Streams appointments from a Mongo cursor straight to the response; only one batch is ever held in memory
+@Service
+public class AppointmentExportService {
+
+    private static final String CSV_HEADER = "id,userId,doctorId,patientName,patientEmail,patientPhone,"
+            + "appointmentDateTime,status,symptoms,paymentOption,paymentStatus,createdAt,updatedAt";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.batch-size:500}")
+    private int batchSize;
+
+    public void exportNdjson(LocalDate from, LocalDate to, String status, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Appointment.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Appointment> appointments = stream(from, to, status);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            Iterator<Appointment> it = appointments.iterator();
+            while (it.hasNext()) {
+                writer.writeValue(json, it.next());
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    public void exportCsv(LocalDate from, LocalDate to, String status, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        try (Stream<Appointment> appointments = stream(from, to, status)) {
+            appointments.forEach(appointment -> {
+                try {
+                    writeCsvRow(writer, appointment);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.flush();
+    }
+
+    private Stream<Appointment> stream(LocalDate from, LocalDate to, String status) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        if (from != null || to != null) {
+            Criteria dateRange = Criteria.where("appointmentDateTime");
+            if (from != null) {
+                dateRange.gte(from.atStartOfDay());
+            }
+            if (to != null) {
+                dateRange.lt(to.plusDays(1).atStartOfDay());
+            }
+            query.addCriteria(dateRange);
+        }
+        if (status != null && !status.isBlank()) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        return mongoTemplate.stream(query, Appointment.class);
+    }
+
+    private static void writeCsvRow(Writer writer, Appointment a) throws IOException {
+        Object[] values = {
+                a.getId(), a.getUserId(), a.getDoctorId(), a.getPatientName(), a.getPatientEmail(),
+                a.getPatientPhone(), a.getAppointmentDateTime(), a.getStatus(), a.getSymptoms(),
+                a.getPaymentOption(), a.getPaymentStatus(), a.getCreatedAt(), a.getUpdatedAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvEscape(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String csvEscape(String value) {
+        // Patient-entered text starting like a formula would run as one when the file is opened in a spreadsheet
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
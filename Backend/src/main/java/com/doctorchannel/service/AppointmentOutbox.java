@@ -0,0 +1,107 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.OutboxEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Writes appointment events to outbox_events for OutboxDispatcher to deliver, so bookings never wait on
+// email/SMS. With app.outbox.transactions the appointment write and its event commit together; without
+// (standalone MongoDB) the event is written right after the appointment, and a crash in between loses it.
+@Slf4j
+@Service
+public class AppointmentOutbox {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<MongoTransactionManager> transactionManager;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    private TransactionTemplate transactions;
+
+    @PostConstruct
+    public void init() {
+        MongoTransactionManager manager = transactionManager.getIfAvailable();
+        transactions = manager == null ? null : new TransactionTemplate(manager);
+    }
+
+    // Runs an appointment change together with the events it records
+    public <T> T inTransaction(Supplier<T> change) {
+        if (transactions == null) {
+            return change.get();
+        }
+        return transactions.execute(status -> change.get());
+    }
+
+    public void record(String type, Appointment appointment, String previousStatus) {
+        if (!enabled) {
+            return;
+        }
+        OutboxEvent event = event(type, appointment, previousStatus);
+        if (transactions != null) {
+            // Inside the transaction a failure has to roll the appointment change back too
+            mongoTemplate.insert(event);
+            return;
+        }
+        try {
+            mongoTemplate.insert(event);
+        } catch (DataAccessException e) {
+            meterRegistry.counter("outbox.events.lost").increment();
+            log.warn("Outbox event {} for appointment {} not written: {}", type, appointment.getId(), e.getMessage());
+        }
+    }
+
+    // For the bulk paths, which are not transactional: one insertMany per batch.
+    // previousStatuses lines up with appointments, or is null.
+    public void recordAll(String type, List<Appointment> appointments, List<String> previousStatuses) {
+        if (!enabled || appointments.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(appointments.size());
+        for (int i = 0; i < appointments.size(); i++) {
+            events.add(event(type, appointments.get(i), previousStatuses == null ? null : previousStatuses.get(i)));
+        }
+        try {
+            mongoTemplate.insert(events, OutboxEvent.class);
+        } catch (DataAccessException e) {
+            meterRegistry.counter("outbox.events.lost").increment(events.size());
+            log.warn("{} outbox events of type {} not written: {}", events.size(), type, e.getMessage());
+        }
+    }
+
+    private static OutboxEvent event(String type, Appointment appointment, String previousStatus) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAppointmentId(appointment.getId());
+        event.setDoctorId(appointment.getDoctorId());
+        long version = appointment.getVersion() == null ? 0 : appointment.getVersion();
+        // A delete leaves the version where it was, but still has to sort after the last update
+        event.setSequence(OutboxEvent.APPOINTMENT_DELETED.equals(type) ? version + 1 : version);
+        event.setPreviousStatus(previousStatus);
+        event.setAppointment(appointment);
+        event.setStatus(OutboxEvent.PENDING);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -1,8 +1,17 @@
 package com.doctorchannel.service;
 
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.exception.ResourceNotFoundException;
+import com.doctorchannel.exception.SlotUnavailableException;
 import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.OutboxEvent;
 import com.doctorchannel.repository.AppointmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -15,10 +24,29 @@ public class AppointmentService {
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
+    @Autowired
+    private AppointmentOutbox appointmentOutbox;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
     public List<Appointment> getAllAppointments() {
         return appointmentRepository.findAll();
     }
 
+    public CursorPage<Appointment> getAppointments(PageQuery page) {
+        return appointmentRepository.findPage(page);
+    }
+
     public Optional<Appointment> getAppointmentById(String id) {
         return appointmentRepository.findById(id);
     }
@@ -31,34 +59,155 @@ public class AppointmentService {
         return appointmentRepository.findByDoctorId(doctorId);
     }
 
+    public CursorPage<Appointment> getAppointmentsByUserId(String userId, PageQuery page) {
+        return appointmentRepository.findByUserId(userId, page);
+    }
+
+    public CursorPage<Appointment> getAppointmentsByDoctorId(String doctorId, PageQuery page) {
+        return appointmentRepository.findByDoctorId(doctorId, page);
+    }
+
     public Appointment createAppointment(Appointment appointment) {
         appointment.setStatus("PENDING");
         appointment.setCreatedAt(LocalDateTime.now());
         appointment.setUpdatedAt(LocalDateTime.now());
-        return appointmentRepository.save(appointment);
+        appointment.setSlotStart(slotAvailabilityIndex.slotStart(
+                appointment.getDoctorId(), appointment.getAppointmentDateTime()));
+
+        // The unique (doctor_id, slot_start) index arbitrates concurrent bookings
+        Appointment saved;
+        try {
+            saved = appointmentOutbox.inTransaction(() -> {
+                Appointment inserted = appointmentRepository.insert(appointment);
+                appointmentOutbox.record(OutboxEvent.APPOINTMENT_CREATED, inserted, null);
+                return inserted;
+            });
+        } catch (DuplicateKeyException e) {
+            bookingMetrics.conflict(BookingMetrics.STAGE_INSERT);
+            throw new SlotUnavailableException("Time slot not available");
+        }
+        slotAvailabilityIndex.markBooked(saved);
+        appointmentStatsService.record(AppointmentStatsService.Change.created(saved));
+        bookingMetrics.booked();
+        return saved;
     }
 
     public Appointment updateAppointmentStatus(String id, String status) {
-        Appointment appointment = appointmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Appointment not found"));
+        return updateAppointmentStatus(id, status, null);
+    }
 
-        appointment.setStatus(status);
-        appointment.setUpdatedAt(LocalDateTime.now());
-        return appointmentRepository.save(appointment);
+    // Cancelling, and any change between active statuses, is a single findAndModify; only re-activating a
+    // cancelled appointment reads it first, to work out which slot it has to win back
+    public Appointment updateAppointmentStatus(String id, String status, Long expectedVersion) {
+        StatusChange change = appointmentOutbox.inTransaction(() -> changeStatus(id, status, expectedVersion));
+        slotAvailabilityIndex.apply(change.appointment());
+        appointmentStatsService.record(AppointmentStatsService.Change.statusChanged(change.appointment(), change.from()));
+        if ("CANCELLED".equals(status) && !"CANCELLED".equals(change.from())) {
+            waitlistService.offer(change.appointment());
+        }
+        return change.appointment();
+    }
+
+    private StatusChange changeStatus(String id, String status, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = Update.update("status", status).set("updatedAt", now);
+        if ("CANCELLED".equals(status)) {
+            return appointmentRepository.updateFieldsIf(id, expectedVersion, null, update.unset("slotStart"))
+                    .map(previous -> applied(previous, status, now, null))
+                    .orElseThrow(() -> missingOrStale(id, expectedVersion));
+        }
+        return appointmentRepository.updateFieldsIf(id, expectedVersion, Criteria.where("status").ne("CANCELLED"), update)
+                .map(previous -> applied(previous, status, now, previous.getSlotStart()))
+                .orElseGet(() -> reactivate(id, expectedVersion, update, status, now));
+    }
+
+    private StatusChange reactivate(String id, Long expectedVersion, Update update, String status, LocalDateTime now) {
+        Appointment current = appointmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
+        if (!"CANCELLED".equals(current.getStatus())
+                || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+            throw stale(id, expectedVersion);
+        }
+
+        LocalDateTime slotStart = slotAvailabilityIndex.slotStart(current.getDoctorId(), current.getAppointmentDateTime());
+        update.set("slotStart", slotStart);
+        try {
+            return appointmentRepository.updateFieldsIf(id, current.getVersion(), Criteria.where("status").is("CANCELLED"), update)
+                    .map(previous -> applied(previous, status, now, slotStart))
+                    .orElseThrow(() -> stale(id, current.getVersion()));
+        } catch (DuplicateKeyException e) {
+            // The slot was booked by someone else while this appointment was cancelled
+            bookingMetrics.conflict(BookingMetrics.STAGE_STATUS_UPDATE);
+            throw new SlotUnavailableException("Time slot not available");
+        }
+    }
+
+    // The update hands back the appointment as it was, whose status the stats and the event need; this
+    // turns it into the state just written
+    private StatusChange applied(Appointment previous, String status, LocalDateTime now, LocalDateTime slotStart) {
+        String from = previous.getStatus();
+        previous.setStatus(status);
+        previous.setUpdatedAt(now);
+        previous.setSlotStart(slotStart);
+        previous.setVersion(previous.getVersion() == null ? 1L : previous.getVersion() + 1);
+        appointmentOutbox.record(OutboxEvent.APPOINTMENT_STATUS_CHANGED, previous, from);
+        return new StatusChange(previous, from);
+    }
+
+    private RuntimeException missingOrStale(String id, Long expectedVersion) {
+        if (expectedVersion != null && appointmentRepository.existsById(id)) {
+            return stale(id, expectedVersion);
+        }
+        return new ResourceNotFoundException("Appointment not found");
+    }
+
+    private static OptimisticLockingFailureException stale(String id, Long version) {
+        return new OptimisticLockingFailureException(version == null
+                ? "Appointment " + id + " was modified concurrently"
+                : "Appointment " + id + " was modified after version " + version);
     }
 
     public void deleteAppointment(String id) {
-        appointmentRepository.deleteById(id);
+        Optional<Appointment> existing = appointmentOutbox.inTransaction(() -> {
+            // Only the delete that actually removed the document records the event and the side effects below
+            Optional<Appointment> found = appointmentRepository.removeById(id);
+            found.ifPresent(appointment -> appointmentOutbox.record(OutboxEvent.APPOINTMENT_DELETED, appointment, null));
+            return found;
+        });
+        existing.ifPresent(appointment -> {
+            slotAvailabilityIndex.markFree(appointment);
+            appointmentStatsService.record(AppointmentStatsService.Change.deleted(appointment));
+            if (!"CANCELLED".equals(appointment.getStatus())) {
+                waitlistService.offer(appointment);
+            }
+        });
+    }
+
+    public void rebuildSlotIndex() {
+        slotAvailabilityIndex.rebuild();
     }
 
     public boolean isSlotAvailable(String doctorId, LocalDateTime appointmentDateTime) {
-        LocalDateTime start = appointmentDateTime.minusMinutes(30);
-        LocalDateTime end = appointmentDateTime.plusMinutes(30);
+        long start = System.nanoTime();
+        Optional<Boolean> indexed = slotAvailabilityIndex.isAvailable(doctorId, appointmentDateTime);
+        if (indexed.isPresent()) {
+            bookingMetrics.slotCheck("index", indexed.get(), System.nanoTime() - start);
+            return indexed.get();
+        }
+
+        // Doctors without a usable schedule, or off-schedule times, still go to the database
+        LocalDateTime windowStart = appointmentDateTime.minusMinutes(30);
+        LocalDateTime windowEnd = appointmentDateTime.plusMinutes(30);
 
         List<Appointment> existingAppointments =
                 appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(
-                        doctorId, start, end);
+                        doctorId, windowStart, windowEnd);
+
+        boolean available = existingAppointments.isEmpty();
+        bookingMetrics.slotCheck("database", available, System.nanoTime() - start);
+        return available;
+    }
 
-        return existingAppointments.isEmpty();
+    private record StatusChange(Appointment appointment, String from) {
     }
 }
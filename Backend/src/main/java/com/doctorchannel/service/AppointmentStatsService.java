@@ -0,0 +1,212 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.dto.DoctorLoadStats;
+import com.doctorchannel.exception.ResourceNotFoundException;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.model.DoctorDailyStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Maintains doctor_daily_stats from AppointmentService and the bulk paths, so dashboards read one small
+// document per doctor-day instead of counting appointments. The weekly rebuild recomputes it from
+// the hot and archived appointments and corrects any drift.
+@Slf4j
+@Service
+public class AppointmentStatsService {
+
+    static final String STATS_COLLECTION = "doctor_daily_stats";
+    private static final List<String> OPEN_STATUSES = List.of("PENDING", "CONFIRMED");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // One status transition of one appointment; from is null for a new appointment, to is null for a deleted one
+    public record Change(String doctorId, LocalDateTime dateTime, String from, String to) {
+
+        public static Change created(Appointment appointment) {
+            return new Change(appointment.getDoctorId(), appointment.getAppointmentDateTime(), null, appointment.getStatus());
+        }
+
+        public static Change statusChanged(Appointment appointment, String from) {
+            return new Change(appointment.getDoctorId(), appointment.getAppointmentDateTime(), from, appointment.getStatus());
+        }
+
+        public static Change deleted(Appointment appointment) {
+            return new Change(appointment.getDoctorId(), appointment.getAppointmentDateTime(), appointment.getStatus(), null);
+        }
+    }
+
+    public void record(Change change) {
+        recordAll(List.of(change));
+    }
+
+    // Deltas are summed per doctor-day first, so a bulk request costs one upsert per day touched
+    public void recordAll(Collection<Change> changes) {
+        Map<String, Map<String, Integer>> deltas = new TreeMap<>();
+        Map<String, Change> firstByKey = new HashMap<>();
+        for (Change change : changes) {
+            if (change.doctorId() == null || change.dateTime() == null || Objects.equals(change.from(), change.to())) {
+                continue;
+            }
+            String key = DoctorDailyStats.key(change.doctorId(), change.dateTime().toLocalDate());
+            Map<String, Integer> counts = deltas.computeIfAbsent(key, k -> new HashMap<>());
+            firstByKey.putIfAbsent(key, change);
+            if (change.from() != null) {
+                counts.merge(change.from(), -1, Integer::sum);
+            }
+            if (change.to() != null) {
+                counts.merge(change.to(), 1, Integer::sum);
+            }
+        }
+        deltas.values().forEach(counts -> counts.values().removeIf(delta -> delta == 0));
+        deltas.values().removeIf(Map::isEmpty);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // A row first created here belongs to the generation of its creation time, so a rebuild running
+        // meanwhile does not take it for a leftover of an earlier one
+        Date created = new Date();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DoctorDailyStats.class);
+        deltas.forEach((key, counts) -> {
+            Change change = firstByKey.get(key);
+            Update update = new Update()
+                    .setOnInsert("doctorId", change.doctorId())
+                    .setOnInsert("day", change.dateTime().toLocalDate())
+                    .setOnInsert("rebuiltAt", created);
+            counts.forEach((status, delta) -> update.inc("counts." + status, delta));
+            ops.upsert(new Query(Criteria.where("id").is(key)), update);
+        });
+        try {
+            ops.execute();
+        } catch (DataAccessException e) {
+            // The appointment change itself went through; the next rebuild puts the counts right
+            meterRegistry.counter("appointments.stats.write.failures").increment();
+            log.warn("Daily stats update failed for {}: {}", deltas.keySet(), e.getMessage());
+        }
+    }
+
+    public DoctorLoadStats getDoctorStats(String doctorId, LocalDate from, LocalDate to) {
+        Doctor doctor = doctorService.getDoctorById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
+        List<DoctorDailyStats> rows = mongoTemplate.find(new Query(Criteria.where("doctorId").is(doctorId)
+                        .and("day").gte(from).lte(to)).with(Sort.by("day")), DoctorDailyStats.class);
+
+        LocalDate today = LocalDate.now();
+        Map<String, Integer> totals = new TreeMap<>();
+        List<DoctorLoadStats.Day> days = new ArrayList<>(rows.size());
+        int booked = 0;
+        int pastBooked = 0;
+        int noShows = 0;
+        for (DoctorDailyStats row : rows) {
+            Map<String, Integer> counts = row.getCounts() == null ? Map.of() : row.getCounts();
+            days.add(new DoctorLoadStats.Day(row.getDay(), counts));
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                totals.merge(count.getKey(), count.getValue(), Integer::sum);
+                if ("CANCELLED".equals(count.getKey())) {
+                    continue;
+                }
+                booked += count.getValue();
+                if (row.getDay().isBefore(today)) {
+                    pastBooked += count.getValue();
+                    // Nobody marked these completed after the day passed
+                    if (OPEN_STATUSES.contains(count.getKey())) {
+                        noShows += count.getValue();
+                    }
+                }
+            }
+        }
+
+        Integer capacity = DoctorSchedule.of(doctor).map(schedule -> {
+            int slots = 0;
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (schedule.worksOn(date)) {
+                    slots += schedule.getSlotsPerDay();
+                }
+            }
+            return slots;
+        }).orElse(null);
+
+        return new DoctorLoadStats(doctorId, from, to, totals, booked, capacity,
+                capacity == null || capacity == 0 ? null : (double) booked / capacity,
+                noShows, pastBooked == 0 ? null : (double) noShows / pastBooked, days);
+    }
+
+    @Scheduled(cron = "${app.stats.rebuild-cron:0 0 3 * * SUN}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Daily stats rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    // Recounts every doctor-day from the hot and archive collections and $merges the result over the stored
+    // counts. Increments that land while the pipeline runs can be overwritten, so run it when traffic is low.
+    public void rebuild() {
+        Date started = new Date();
+        String zone = ZoneId.systemDefault().getId();
+        Document day = new Document("$dateTrunc", new Document("date", "$appointment_date_time")
+                .append("unit", "day").append("timezone", zone));
+
+        List<Document> pipeline = new ArrayList<>();
+        mongoTemplate.getCollectionNames().stream()
+                .filter(name -> name.startsWith(AppointmentArchiveService.ARCHIVE_PREFIX))
+                .sorted()
+                .forEach(name -> pipeline.add(new Document("$unionWith", name)));
+        pipeline.add(new Document("$match", new Document("doctor_id", new Document("$type", "string"))
+                .append("appointment_date_time", new Document("$type", "date"))));
+        pipeline.add(new Document("$group", new Document("_id", new Document("doctor", "$doctor_id")
+                .append("day", day).append("status", new Document("$ifNull", List.of("$status", "UNKNOWN"))))
+                .append("n", new Document("$sum", 1))));
+        pipeline.add(new Document("$group", new Document("_id", new Document("doctor", "$_id.doctor")
+                .append("day", "$_id.day"))
+                .append("counts", new Document("$push", new Document("k", "$_id.status").append("v", "$n")))));
+        pipeline.add(new Document("$project", new Document("_id", new Document("$concat", List.of("$_id.doctor", ":",
+                        new Document("$dateToString", new Document("date", "$_id.day")
+                                .append("format", "%Y-%m-%d").append("timezone", zone)))))
+                .append("doctor_id", "$_id.doctor")
+                .append("day", "$_id.day")
+                .append("counts", new Document("$arrayToObject", "$counts"))
+                .append("rebuilt_at", new Document("$literal", started))));
+        pipeline.add(new Document("$merge", new Document("into", STATS_COLLECTION).append("on", "_id")
+                .append("whenMatched", "replace").append("whenNotMatched", "insert")));
+
+        mongoTemplate.getCollection(AppointmentArchiveService.HOT_COLLECTION)
+                .aggregate(pipeline).allowDiskUse(true).toCollection();
+        // Doctor-days with no appointments left were neither rewritten by this run nor created since it started
+        long removed = mongoTemplate.remove(new Query(Criteria.where("rebuiltAt").lt(started)), DoctorDailyStats.class)
+                .getDeletedCount();
+        log.info("Daily stats rebuilt ({} stale doctor-days removed)", removed);
+    }
+}
@@ -1,11 +1,15 @@
 package com.doctorchannel.service;
 
+import com.doctorchannel.exception.TooManyRequestsException;
 import com.doctorchannel.model.User;
 import com.doctorchannel.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
 @Service
 public class AuthService {
 
@@ -13,15 +17,42 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
-    public User registerUser(User user) {
+    // Hashing runs on the password hashing pool; the save follows on the same thread
+    public CompletableFuture<User> registerUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("Error: Email is already in use!");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRole("USER");
-        return userRepository.save(user);
+        return passwordHashingService.encode(user.getPassword()).thenApply(hash -> {
+            user.setPassword(hash);
+            user.setRole("USER");
+            user.setVersion(null);
+            return userRepository.save(user);
+        });
+    }
+
+    // Best effort after a successful login: the user is not kept waiting, and a skipped or lost
+    // upgrade is simply retried at the next login
+    public void upgradePasswordHash(User user, String rawPassword) {
+        String current = user.getPassword();
+        if (!passwordHashingService.needsRehash(current)) {
+            return;
+        }
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAccept(hash -> {
+                        if (userRepository.replacePasswordHash(user.getId(), current, hash)) {
+                            log.debug("Upgraded password hash for user {}", user.getId());
+                        }
+                    })
+                    .exceptionally(e -> {
+                        log.warn("Password hash upgrade failed for user {}: {}", user.getId(), e.getMessage());
+                        return null;
+                    });
+        } catch (TooManyRequestsException e) {
+            // Hashing pool is saturated; not worth competing with logins for it
+        }
     }
 }
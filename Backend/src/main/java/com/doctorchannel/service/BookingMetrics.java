@@ -0,0 +1,39 @@
+package com.doctorchannel.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Booking outcomes and slot-check latency, published under appointments.*
+@Component
+public class BookingMetrics {
+
+    public static final String STAGE_PRECHECK = "precheck";
+    public static final String STAGE_INSERT = "insert";
+    public static final String STAGE_STATUS_UPDATE = "status_update";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public void booked() {
+        meterRegistry.counter("appointments.bookings").increment();
+    }
+
+    // A booking turned away because the slot was taken, tagged by where it was caught
+    public void conflict(String stage) {
+        meterRegistry.counter("appointments.booking.conflicts", "stage", stage).increment();
+    }
+
+    // source is "index" when the in-memory slot index answered, "database" when it fell back to a query
+    public void slotCheck(String source, boolean available, long nanos) {
+        Timer.builder("appointments.slot.check")
+                .tag("source", source)
+                .tag("available", String.valueOf(available))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,37 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.repository.ReactiveAppointmentRepository;
+import com.doctorchannel.repository.ReactiveDoctorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// Read-only lookups on the reactive driver: no thread is held while Mongo or the client is slow
+@Service
+public class BrowseService {
+
+    @Autowired
+    private ReactiveDoctorRepository reactiveDoctorRepository;
+
+    @Autowired
+    private ReactiveAppointmentRepository reactiveAppointmentRepository;
+
+    public Flux<Doctor> searchDoctors(DoctorSearchCriteria criteria) {
+        return reactiveDoctorRepository.search(criteria);
+    }
+
+    public Mono<Doctor> getDoctor(String id) {
+        return reactiveDoctorRepository.findById(id);
+    }
+
+    public Flux<Appointment> getDoctorAppointments(String doctorId, LocalDate from, LocalDate to) {
+        return reactiveAppointmentRepository.findByDoctorIdAndAppointmentDateTimeBetweenOrderByAppointmentDateTime(
+                doctorId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,256 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.config.CacheConfig;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Keeps this node's in-memory state (doctor caches, search index, slot availability) in step with writes
+// made on other nodes, from one change stream over the doctors and appointments collections. The resume
+// token is saved per node, so a restart picks up where it left off; if the oplog no longer reaches back
+// that far, local state is rebuilt from the database instead. Change streams need a replica set.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.change-streams.enabled", havingValue = "true")
+public class ChangeStreamInvalidator {
+
+    static final String TOKEN_COLLECTION = "change_stream_tokens";
+    private static final List<String> WATCHED = List.of("doctors", "appointments");
+    // Resume point no longer in the oplog, or not usable
+    private static final List<Integer> RESYNC_CODES = List.of(260, 280, 286);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Value("${app.change-streams.node-id:}")
+    private String nodeId;
+
+    @Value("${app.change-streams.token-save-interval:5s}")
+    private String tokenSaveInterval;
+
+    private volatile boolean running = true;
+    private volatile boolean slotIndexStale;
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (nodeId == null || nodeId.isBlank()) {
+            // Without a stable id the token cannot be found again after a restart; every start resyncs
+            nodeId = UUID.randomUUID().toString();
+        }
+        enablePreImages();
+        worker = new Thread(this::run, "change-stream-invalidator");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Watching {} for changes from other nodes (node {})", WATCHED, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        long saveEveryMillis = DurationStyle.detectAndParse(tokenSaveInterval).toMillis();
+        long backoffMillis = 1000;
+        while (running) {
+            BsonDocument token = loadToken();
+            ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                    .watch(List.of(Aggregates.match(Filters.in("ns.coll", WATCHED))))
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                    .maxAwaitTime(1, TimeUnit.SECONDS);
+            if (token != null) {
+                stream.resumeAfter(token);
+            }
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                if (token == null) {
+                    // The cursor is open, so nothing written from here on is missed while local state reloads
+                    resync();
+                }
+                backoffMillis = 1000;
+                long lastSave = System.currentTimeMillis();
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        handle(change);
+                    } else if (slotIndexStale) {
+                        slotIndexStale = false;
+                        slotAvailabilityIndex.rebuild();
+                    }
+                    if (System.currentTimeMillis() - lastSave >= saveEveryMillis && cursor.getResumeToken() != null) {
+                        saveToken(cursor.getResumeToken());
+                        lastSave = System.currentTimeMillis();
+                    }
+                }
+            } catch (MongoException e) {
+                if (!running) {
+                    return;
+                }
+                if (RESYNC_CODES.contains(e.getCode())) {
+                    log.warn("Change stream cannot resume ({}); rebuilding local state", e.getMessage());
+                    deleteToken();
+                } else {
+                    log.warn("Change stream failed, retrying in {} ms: {}", backoffMillis, e.getMessage());
+                    sleep(backoffMillis);
+                    backoffMillis = Math.min(backoffMillis * 2, 30_000);
+                }
+            } catch (RuntimeException e) {
+                log.error("Change stream handler failed, restarting: {}", e.getMessage(), e);
+                sleep(backoffMillis);
+            }
+        }
+    }
+
+    private void handle(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            return;
+        }
+        String id = idOf(change.getDocumentKey().get("_id"));
+        if ("doctors".equals(change.getNamespace().getCollectionName())) {
+            onDoctorChange(change.getOperationType(), id, change.getFullDocument());
+        } else {
+            onAppointmentChange(change.getFullDocument(), change.getFullDocumentBeforeChange());
+        }
+    }
+
+    // Changes this node made itself come through as well; every step here is safe to repeat
+    void onDoctorChange(OperationType operation, String id, Document fullDocument) {
+        evict(CacheConfig.DOCTORS, id);
+        clear(CacheConfig.DOCTOR_PAGES);
+        slotAvailabilityIndex.evictDoctor(id);
+        if (operation == OperationType.DELETE || fullDocument == null) {
+            doctorSearchIndex.remove(id);
+        } else {
+            doctorSearchIndex.put(mongoTemplate.getConverter().read(Doctor.class, fullDocument));
+        }
+    }
+
+    // Drops the cached day the appointment falls on; the next availability check reads it again
+    void onAppointmentChange(Document fullDocument, Document before) {
+        Document known = fullDocument != null ? fullDocument : before;
+        if (known == null) {
+            // A delete without a pre-image: which doctor and day it freed is unknown
+            slotIndexStale = true;
+            return;
+        }
+        Appointment appointment = mongoTemplate.getConverter().read(Appointment.class, known);
+        if (appointment.getAppointmentDateTime() == null
+                || appointment.getAppointmentDateTime().toLocalDate().isBefore(LocalDate.now())) {
+            return;
+        }
+        slotAvailabilityIndex.evictDay(appointment.getDoctorId(), appointment.getAppointmentDateTime().toLocalDate());
+    }
+
+    private void resync() {
+        clear(CacheConfig.DOCTORS);
+        clear(CacheConfig.DOCTOR_PAGES);
+        doctorSearchIndex.rebuild();
+        slotAvailabilityIndex.rebuild();
+    }
+
+    // Lets a delete event carry the deleted appointment; needs MongoDB 6.0+ and collMod rights
+    private void enablePreImages() {
+        try {
+            mongoTemplate.executeCommand(new Document("collMod", "appointments")
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (RuntimeException e) {
+            log.warn("Could not enable pre-images on appointments; deleted appointments will rebuild the slot index: {}",
+                    e.getMessage());
+        }
+    }
+
+    private BsonDocument loadToken() {
+        BsonDocument stored = tokens().find(Filters.eq("_id", nodeId)).first();
+        return stored == null || !stored.isDocument("token") ? null : stored.getDocument("token");
+    }
+
+    private void saveToken(BsonDocument token) {
+        tokens().replaceOne(Filters.eq("_id", nodeId),
+                new BsonDocument("_id", new BsonString(nodeId))
+                        .append("token", token)
+                        .append("savedAt", new BsonDateTime(System.currentTimeMillis())),
+                new ReplaceOptions().upsert(true));
+    }
+
+    private void deleteToken() {
+        tokens().deleteOne(Filters.eq("_id", nodeId));
+    }
+
+    private MongoCollection<BsonDocument> tokens() {
+        return mongoTemplate.getCollection(TOKEN_COLLECTION).withDocumentClass(BsonDocument.class);
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
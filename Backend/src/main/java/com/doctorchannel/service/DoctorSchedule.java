@@ -0,0 +1,107 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Doctor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+// Parsed form of a doctor's working hours: slot N of a day starts at startTime + N * slotMinutes
+public final class DoctorSchedule {
+
+    private final LocalTime startTime;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final Set<DayOfWeek> availableDays;
+
+    private DoctorSchedule(LocalTime startTime, int slotMinutes, int slotsPerDay, Set<DayOfWeek> availableDays) {
+        this.startTime = startTime;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = slotsPerDay;
+        this.availableDays = availableDays;
+    }
+
+    public static Optional<DoctorSchedule> of(Doctor doctor) {
+        if (doctor == null || doctor.getStartTime() == null || doctor.getEndTime() == null
+                || doctor.getSlotDuration() == null || doctor.getSlotDuration() <= 0) {
+            return Optional.empty();
+        }
+
+        LocalTime start;
+        LocalTime end;
+        try {
+            start = LocalTime.parse(doctor.getStartTime());
+            end = LocalTime.parse(doctor.getEndTime());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+
+        int minutes = end.toSecondOfDay() / 60 - start.toSecondOfDay() / 60;
+        int slots = minutes / doctor.getSlotDuration();
+        if (slots <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new DoctorSchedule(start, doctor.getSlotDuration(), slots,
+                parseDays(doctor.getAvailableDays())));
+    }
+
+    // Accepts "Monday", "MONDAY" or "Mon"; no configured days means the doctor works every day
+    public static Set<DayOfWeek> parseDays(List<String> days) {
+        if (days == null || days.isEmpty()) {
+            return EnumSet.allOf(DayOfWeek.class);
+        }
+        Set<DayOfWeek> parsed = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : days) {
+            if (day == null || day.trim().length() < 3) {
+                continue;
+            }
+            String value = day.trim().toUpperCase(Locale.ROOT);
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                if (dayOfWeek.name().startsWith(value)) {
+                    parsed.add(dayOfWeek);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    public boolean worksOn(LocalDate date) {
+        return availableDays.contains(date.getDayOfWeek());
+    }
+
+    // Index of the slot containing the given time, or -1 when it falls outside working hours
+    public int slotIndex(LocalDateTime dateTime) {
+        if (!worksOn(dateTime.toLocalDate())) {
+            return -1;
+        }
+        int offset = dateTime.toLocalTime().toSecondOfDay() - startTime.toSecondOfDay();
+        if (offset < 0) {
+            return -1;
+        }
+        int index = offset / (slotMinutes * 60);
+        return index < slotsPerDay ? index : -1;
+    }
+
+    public LocalDateTime slotStart(LocalDate date, int index) {
+        return date.atTime(startTime).plusMinutes((long) index * slotMinutes);
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+}
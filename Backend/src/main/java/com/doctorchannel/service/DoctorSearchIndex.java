@@ -0,0 +1,271 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.repository.DoctorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Trigram index over doctor name, specialty and city, replacing the unanchored regex scans on the doctors collection
+@Slf4j
+@Component
+public class DoctorSearchIndex {
+
+    public enum Field {
+        NAME(Doctor::getName),
+        SPECIALTY(Doctor::getSpecialty),
+        CITY(Doctor::getCity);
+
+        private final Function<Doctor, String> accessor;
+
+        Field(Function<Doctor, String> accessor) {
+            this.accessor = accessor;
+        }
+    }
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private volatile Snapshot current = new Snapshot();
+    private volatile boolean ready;
+
+    // Puts and removes made while a rebuild is loading, replayed onto the new snapshot before it is swapped in
+    private volatile Queue<Consumer<Snapshot>> pendingChanges;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Same matches as a case-insensitive "contains", ordered exact > prefix > word prefix > infix
+    public List<Doctor> search(Field field, String query) {
+        String needle = normalize(query);
+        Snapshot snapshot = current;
+        FieldIndex index = snapshot.fields.get(field);
+
+        Collection<String> candidates = needle.length() < 3 ? index.values.keySet() : index.candidates(needle);
+        List<Match> matches = new ArrayList<>();
+        for (String id : candidates) {
+            String value = index.values.get(id);
+            Doctor doctor = snapshot.doctors.get(id);
+            if (value != null && doctor != null && value.contains(needle)) {
+                matches.add(new Match(doctor, rank(value, needle), value.length()));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::length)
+                .thenComparing(m -> m.doctor().getName(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        List<Doctor> result = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            result.add(match.doctor());
+        }
+        return result;
+    }
+
+    public void put(Doctor doctor) {
+        if (doctor == null || doctor.getId() == null) {
+            return;
+        }
+        change(snapshot -> snapshot.put(doctor));
+    }
+
+    public void remove(String id) {
+        if (id == null) {
+            return;
+        }
+        change(snapshot -> snapshot.remove(id));
+    }
+
+    // Loads into a fresh snapshot, so doctors deleted while the load was running cannot come back
+    public void rebuild() {
+        rebuildLock.lock();
+        Queue<Consumer<Snapshot>> pending = new ConcurrentLinkedQueue<>();
+        pendingChanges = pending;
+        try {
+            Snapshot rebuilt = new Snapshot();
+            for (Doctor doctor : doctorRepository.findAll()) {
+                if (doctor.getId() != null) {
+                    rebuilt.put(doctor);
+                }
+            }
+            swapLock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(rebuilt));
+                current = rebuilt;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("Doctor search index built with {} doctors", rebuilt.doctors.size());
+        } finally {
+            pendingChanges = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    private void change(Consumer<Snapshot> change) {
+        swapLock.readLock().lock();
+        try {
+            change.accept(current);
+            Queue<Consumer<Snapshot>> pending = pendingChanges;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Searches keep going to the database until a rebuild succeeds
+            log.warn("Doctor search index warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static int rank(String value, String needle) {
+        if (value.equals(needle)) {
+            return 0;
+        }
+        if (value.startsWith(needle)) {
+            return 1;
+        }
+        if (value.contains(" " + needle)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(value.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Match(Doctor doctor, int rank, int length) {
+    }
+
+    private static final class Snapshot {
+        private final ConcurrentMap<String, Doctor> doctors = new ConcurrentHashMap<>();
+        private final Map<Field, FieldIndex> fields = new EnumMap<>(Field.class);
+
+        private Snapshot() {
+            for (Field field : Field.values()) {
+                fields.put(field, new FieldIndex());
+            }
+        }
+
+        // compute holds the doctor's entry while its postings change, so two updates of one doctor cannot
+        // interleave and leave postings for a value that is no longer there
+        private void put(Doctor doctor) {
+            doctors.compute(doctor.getId(), (id, previous) -> {
+                for (Field field : Field.values()) {
+                    fields.get(field).put(id, normalize(field.accessor.apply(doctor)));
+                }
+                return doctor;
+            });
+        }
+
+        private void remove(String id) {
+            doctors.compute(id, (key, previous) -> {
+                for (FieldIndex index : fields.values()) {
+                    index.remove(key);
+                }
+                return null;
+            });
+        }
+    }
+
+    private static final class FieldIndex {
+        private final ConcurrentMap<String, String> values = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+        private void put(String id, String value) {
+            String previous = values.put(id, value);
+            if (previous != null) {
+                for (String gram : trigrams(previous)) {
+                    removePosting(gram, id);
+                }
+            }
+            for (String gram : trigrams(value)) {
+                postings.compute(gram, (g, ids) -> {
+                    Set<String> updated = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    updated.add(id);
+                    return updated;
+                });
+            }
+        }
+
+        private void remove(String id) {
+            String previous = values.remove(id);
+            if (previous != null) {
+                for (String gram : trigrams(previous)) {
+                    removePosting(gram, id);
+                }
+            }
+        }
+
+        private void removePosting(String gram, String id) {
+            postings.computeIfPresent(gram, (g, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+
+        // Intersects posting lists starting from the rarest trigram
+        private Collection<String> candidates(String needle) {
+            List<Set<String>> lists = new ArrayList<>();
+            for (String gram : trigrams(needle)) {
+                Set<String> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<String> result = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                result.retainAll(lists.get(i));
+            }
+            return result;
+        }
+    }
+}
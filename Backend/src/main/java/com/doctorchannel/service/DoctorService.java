@@ -1,8 +1,17 @@
 package com.doctorchannel.service;
 
+import com.doctorchannel.config.CacheConfig;
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.exception.ResourceNotFoundException;
 import com.doctorchannel.model.Doctor;
 import com.doctorchannel.repository.DoctorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,54 +23,105 @@ public class DoctorService {
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @Cacheable(cacheNames = CacheConfig.DOCTOR_PAGES, key = "'all'")
     public List<Doctor> getAllDoctors() {
         return doctorRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.DOCTOR_PAGES, key = "#page")
+    public CursorPage<Doctor> getDoctors(PageQuery page) {
+        return doctorRepository.findPage(page);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.DOCTORS, key = "#id", unless = "#result == null")
     public Optional<Doctor> getDoctorById(String id) {
         return doctorRepository.findById(id);
     }
 
+    public CursorPage<Doctor> searchDoctors(DoctorSearchCriteria criteria, PageQuery page) {
+        return doctorRepository.search(criteria, page);
+    }
+
+    // The regex finders are only used until the in-memory search index has been built
     public List<Doctor> searchDoctorsBySpecialty(String specialty) {
+        if (doctorSearchIndex.isReady()) {
+            return doctorSearchIndex.search(DoctorSearchIndex.Field.SPECIALTY, specialty);
+        }
         return doctorRepository.findBySpecialtyContainingIgnoreCase(specialty);
     }
 
     public List<Doctor> searchDoctorsByName(String name) {
+        if (doctorSearchIndex.isReady()) {
+            return doctorSearchIndex.search(DoctorSearchIndex.Field.NAME, name);
+        }
         return doctorRepository.findByNameContainingIgnoreCase(name);
     }
 
     public List<Doctor> searchDoctorsByCity(String city) {
+        if (doctorSearchIndex.isReady()) {
+            return doctorSearchIndex.search(DoctorSearchIndex.Field.CITY, city);
+        }
         return doctorRepository.findByCityContainingIgnoreCase(city);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true)
     public Doctor createDoctor(Doctor doctor) {
         doctor.setIsActive(true);
-        return doctorRepository.save(doctor);
+        doctor.setVersion(null);
+        Doctor saved = doctorRepository.save(doctor);
+        doctorSearchIndex.put(saved);
+        slotAvailabilityIndex.evictDoctor(saved.getId());
+        return saved;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true)
+    })
+    // One findAndModify that $sets only the fields present in the request; with a version, stale edits get a 409
     public Doctor updateDoctor(String id, Doctor doctorDetails) {
-        Doctor doctor = doctorRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Doctor not found"));
-
-        doctor.setName(doctorDetails.getName());
-        doctor.setSpecialty(doctorDetails.getSpecialty());
-        doctor.setQualification(doctorDetails.getQualification());
-        doctor.setEmail(doctorDetails.getEmail());
-        doctor.setPhone(doctorDetails.getPhone());
-        doctor.setHospitalName(doctorDetails.getHospitalName());
-        doctor.setAddress(doctorDetails.getAddress());
-        doctor.setCity(doctorDetails.getCity());
-        doctor.setConsultationFee(doctorDetails.getConsultationFee());
-        doctor.setImageUrl(doctorDetails.getImageUrl());
-        doctor.setAvailableDays(doctorDetails.getAvailableDays());
-        doctor.setStartTime(doctorDetails.getStartTime());
-        doctor.setEndTime(doctorDetails.getEndTime());
-        doctor.setSlotDuration(doctorDetails.getSlotDuration());
-
-        return doctorRepository.save(doctor);
+        Update update = new Update();
+        setIfPresent(update, "name", doctorDetails.getName());
+        setIfPresent(update, "specialty", doctorDetails.getSpecialty());
+        setIfPresent(update, "qualification", doctorDetails.getQualification());
+        setIfPresent(update, "email", doctorDetails.getEmail());
+        setIfPresent(update, "phone", doctorDetails.getPhone());
+        setIfPresent(update, "hospitalName", doctorDetails.getHospitalName());
+        setIfPresent(update, "address", doctorDetails.getAddress());
+        setIfPresent(update, "city", doctorDetails.getCity());
+        setIfPresent(update, "consultationFee", doctorDetails.getConsultationFee());
+        setIfPresent(update, "imageUrl", doctorDetails.getImageUrl());
+        setIfPresent(update, "availableDays", doctorDetails.getAvailableDays());
+        setIfPresent(update, "startTime", doctorDetails.getStartTime());
+        setIfPresent(update, "endTime", doctorDetails.getEndTime());
+        setIfPresent(update, "slotDuration", doctorDetails.getSlotDuration());
+
+        Doctor saved = doctorRepository.updateFields(id, doctorDetails.getVersion(), update)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
+        slotAvailabilityIndex.evictDoctor(id);
+        doctorSearchIndex.put(saved);
+        return saved;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true)
+    })
     public void deleteDoctor(String id) {
         doctorRepository.deleteById(id);
+        slotAvailabilityIndex.evictDoctor(id);
+        doctorSearchIndex.remove(id);
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
     }
 }
@@ -0,0 +1,47 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Appends each event as one JSON line; for local testing of the notification pipeline
+@Component
+@ConditionalOnExpression("!'${app.outbox.sinks.file.path:}'.isEmpty()")
+public class FileNotificationSink implements NotificationSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.sinks.file.path}")
+    private Path path;
+
+    // Keeps concurrent appends from interleaving; a lock, so a dispatcher thread blocked on the file is not pinned
+    private final Lock writeLock = new ReentrantLock();
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) throws IOException {
+        String line = objectMapper.writeValueAsString(event) + "\n";
+        writeLock.lock();
+        try {
+            Files.writeString(path, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
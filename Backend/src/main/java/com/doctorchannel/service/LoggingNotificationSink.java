@@ -0,0 +1,24 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.sinks.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingNotificationSink implements NotificationSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        log.info("Notification {} {} appointment={} doctor={} status={} (was {})", event.getId(), event.getType(),
+                event.getAppointmentId(), event.getDoctorId(),
+                event.getAppointment() == null ? null : event.getAppointment().getStatus(), event.getPreviousStatus());
+    }
+}
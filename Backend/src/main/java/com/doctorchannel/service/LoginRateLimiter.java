@@ -0,0 +1,67 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fixed-window attempt counters per email and per client IP, checked before any hashing is queued
+@Component
+public class LoginRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.rate-limit.window:1m}")
+    private String window;
+
+    @Value("${app.auth.rate-limit.per-email:10}")
+    private int perEmail;
+
+    @Value("${app.auth.rate-limit.per-ip:60}")
+    private int perIp;
+
+    @Value("${app.auth.rate-limit.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+
+    private Duration windowDuration;
+    private Cache<String, AtomicInteger> emailAttempts;
+    private Cache<String, AtomicInteger> ipAttempts;
+
+    @PostConstruct
+    public void init() {
+        windowDuration = DurationStyle.detectAndParse(window);
+        // The window starts at a key's first attempt and the counter is dropped when it ends
+        emailAttempts = Caffeine.newBuilder().expireAfterWrite(windowDuration).maximumSize(maxTrackedKeys).build();
+        ipAttempts = Caffeine.newBuilder().expireAfterWrite(windowDuration).maximumSize(maxTrackedKeys).build();
+    }
+
+    // Throws TooManyRequestsException once either key has used up its attempts for the window
+    public void acquire(String email, String clientIp) {
+        if (clientIp != null && exceeded(ipAttempts, clientIp, perIp)) {
+            reject("ip");
+        }
+        if (email != null && exceeded(emailAttempts, email.trim().toLowerCase(Locale.ROOT), perEmail)) {
+            reject("email");
+        }
+    }
+
+    private static boolean exceeded(Cache<String, AtomicInteger> attempts, String key, int limit) {
+        return limit > 0 && attempts.get(key, k -> new AtomicInteger()).incrementAndGet() > limit;
+    }
+
+    private void reject(String key) {
+        meterRegistry.counter("auth.rate_limited", "key", key).increment();
+        throw new TooManyRequestsException("Too many attempts, please try again later",
+                Math.max(1, windowDuration.getSeconds()));
+    }
+}
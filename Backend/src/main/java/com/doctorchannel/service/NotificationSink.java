@@ -0,0 +1,12 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.OutboxEvent;
+
+// Receives appointment events from the outbox dispatcher. Delivery is at least once: an event is retried
+// until every sink accepts it, so sinks should ignore an event id they have already handled.
+public interface NotificationSink {
+
+    String name();
+
+    void deliver(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,197 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.OutboxEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Delivers outbox events to every NotificationSink. One instance at a time holds the dispatcher lease;
+// it reads pending events in batches and works through each doctor's events on its own thread. Within an
+// appointment events go out in sequence order, and a failed event holds back the ones after it until its
+// retry succeeds or it is given up on.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    static final String LEASE_COLLECTION = "outbox_lease";
+    private static final String LEASE_ID = "dispatcher";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired(required = false)
+    private List<NotificationSink> sinks = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.threads:4}")
+    private int threads;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff:5s}")
+    private String retryBackoff;
+
+    @Value("${app.outbox.max-retry-backoff:30m}")
+    private String maxRetryBackoff;
+
+    @Value("${app.outbox.lease:30s}")
+    private String lease;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private ExecutorService pool;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "outbox.dispatch", List.of());
+        log.info("Outbox dispatcher: {} threads, sinks {}", threads, sinks.stream().map(NotificationSink::name).toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        try {
+            // Keep going while batches come back full, but never past the lease
+            LocalDateTime leaseEnd = acquireLease();
+            while (leaseEnd != null && dispatchBatch() == batchSize && LocalDateTime.now().isBefore(leaseEnd)) {
+                leaseEnd = acquireLease();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    // The end of this instance's lease, or null if another instance holds it
+    LocalDateTime acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(DurationStyle.detectAndParse(lease));
+        Query free = new Query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where("leaseUntil").lt(now), Criteria.where("owner").is(instanceId)));
+        try {
+            mongoTemplate.upsert(free, Update.update("owner", instanceId).set("leaseUntil", until), LEASE_COLLECTION);
+            return until;
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        // Appointments with an event waiting out its backoff: nothing after it may overtake it
+        List<String> blocked = mongoTemplate.findDistinct(new Query(Criteria.where("status").is(OutboxEvent.PENDING)
+                .and("nextAttemptAt").gt(now)), "appointmentId", OutboxEvent.class, String.class);
+        List<OutboxEvent> pending = mongoTemplate.find(new Query(Criteria.where("status").is(OutboxEvent.PENDING)
+                .and("appointmentId").nin(blocked)
+                .orOperator(Criteria.where("nextAttemptAt").is(null), Criteria.where("nextAttemptAt").lte(now)))
+                .with(Sort.by("createdAt")).limit(batchSize), OutboxEvent.class);
+
+        Map<String, List<OutboxEvent>> byDoctor = new LinkedHashMap<>();
+        for (OutboxEvent event : pending) {
+            byDoctor.computeIfAbsent(String.valueOf(event.getDoctorId()), doctor -> new ArrayList<>()).add(event);
+        }
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(byDoctor.size());
+        for (List<OutboxEvent> events : byDoctor.values()) {
+            tasks.add(CompletableFuture.runAsync(() -> deliverInOrder(events), executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        return pending.size();
+    }
+
+    void deliverInOrder(List<OutboxEvent> events) {
+        Map<String, List<OutboxEvent>> byAppointment = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byAppointment.computeIfAbsent(event.getAppointmentId(), id -> new ArrayList<>()).add(event);
+        }
+
+        List<String> delivered = new ArrayList<>();
+        for (List<OutboxEvent> appointmentEvents : byAppointment.values()) {
+            appointmentEvents.sort(Comparator.comparing(OutboxEvent::getSequence, Comparator.nullsFirst(Comparator.naturalOrder())));
+            for (OutboxEvent event : appointmentEvents) {
+                try {
+                    for (NotificationSink sink : sinks) {
+                        sink.deliver(event);
+                    }
+                    delivered.add(event.getId());
+                } catch (Exception e) {
+                    retryLater(event, e);
+                    break;
+                }
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("id").in(delivered)),
+                    Update.update("status", OutboxEvent.DELIVERED).set("deliveredAt", LocalDateTime.now()),
+                    OutboxEvent.class);
+            meterRegistry.counter("outbox.events.delivered").increment(delivered.size());
+        }
+    }
+
+    private void retryLater(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        Update update = Update.update("attempts", attempts).set("lastError", String.valueOf(e.getMessage()));
+        if (attempts >= maxAttempts) {
+            update.set("status", OutboxEvent.FAILED);
+            meterRegistry.counter("outbox.events.failed").increment();
+            log.error("Giving up on outbox event {} ({} for appointment {}) after {} attempts: {}",
+                    event.getId(), event.getType(), event.getAppointmentId(), attempts, e.getMessage());
+        } else {
+            update.set("nextAttemptAt", LocalDateTime.now().plus(backoff(attempts)));
+            meterRegistry.counter("outbox.events.retried").increment();
+            log.warn("Outbox event {} failed (attempt {}): {}", event.getId(), attempts, e.getMessage());
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(event.getId())), update, OutboxEvent.class);
+    }
+
+    // Doubles per attempt, capped
+    Duration backoff(int attempts) {
+        Duration base = DurationStyle.detectAndParse(retryBackoff);
+        Duration max = DurationStyle.detectAndParse(maxRetryBackoff);
+        Duration delay = base.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+}
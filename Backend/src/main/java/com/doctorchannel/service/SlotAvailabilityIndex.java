@@ -0,0 +1,297 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.repository.AppointmentRepository;
+import com.doctorchannel.repository.DoctorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-memory bitmap of booked slots per doctor per day, so availability checks skip the database
+@Slf4j
+@Component
+public class SlotAvailabilityIndex {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${app.slot-index.warmup-days:30}")
+    private int warmupDays;
+
+    private volatile ConcurrentMap<String, DoctorSlots> doctors = new ConcurrentHashMap<>();
+
+    // Non-null while rebuild() reads its snapshot. Changes made in the meantime may be missing from it, so
+    // they are replayed onto the rebuilt map before it replaces the live one.
+    private volatile Queue<Consumer<ConcurrentMap<String, DoctorSlots>>> pendingChanges;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // A lock rather than synchronized, so a rebuild waiting on Mongo does not pin a virtual thread
+    private final Lock rebuildLock = new ReentrantLock();
+
+    // Empty when the index cannot answer (no usable schedule, or time outside working hours)
+    public Optional<Boolean> isAvailable(String doctorId, LocalDateTime dateTime) {
+        if (doctorId == null || dateTime == null) {
+            return Optional.empty();
+        }
+        DoctorSlots slots = slotsFor(doctorId);
+        if (slots.schedule == null) {
+            return Optional.empty();
+        }
+        int index = slots.schedule.slotIndex(dateTime);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(!isSet(slots.day(dateTime.toLocalDate()), index));
+    }
+
+    // Normalized slot start used as the uniqueness key for a booking
+    public LocalDateTime slotStart(String doctorId, LocalDateTime dateTime) {
+        if (doctorId == null || dateTime == null) {
+            return null;
+        }
+        DoctorSlots slots = slotsFor(doctorId);
+        if (slots.schedule != null) {
+            int index = slots.schedule.slotIndex(dateTime);
+            if (index >= 0) {
+                return slots.schedule.slotStart(dateTime.toLocalDate(), index);
+            }
+        }
+        return dateTime.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    // Keeps the bitmap in line with an appointment's current status
+    public void apply(Appointment appointment) {
+        if (appointment == null) {
+            return;
+        }
+        if ("CANCELLED".equals(appointment.getStatus())) {
+            markFree(appointment);
+        } else {
+            markBooked(appointment);
+        }
+    }
+
+    public void markBooked(Appointment appointment) {
+        update(appointment, true);
+    }
+
+    public void markFree(Appointment appointment) {
+        update(appointment, false);
+    }
+
+    // Called when a doctor's schedule changes or the doctor is removed
+    public void evictDoctor(String doctorId) {
+        if (doctorId != null) {
+            change(map -> map.remove(doctorId));
+        }
+    }
+
+    // Forgets one loaded day, so the next lookup reads it again; for changes made on other nodes
+    public void evictDay(String doctorId, LocalDate date) {
+        if (doctorId == null || date == null) {
+            return;
+        }
+        change(map -> {
+            DoctorSlots slots = map.get(doctorId);
+            if (slots != null) {
+                slots.days.remove(date);
+            }
+        });
+    }
+
+    // Reloads every doctor's upcoming days from the appointments collection into a new map and swaps it in;
+    // lookups keep using the old map until then
+    public void rebuild() {
+        rebuildLock.lock();
+        Queue<Consumer<ConcurrentMap<String, DoctorSlots>>> pending = new ConcurrentLinkedQueue<>();
+        pendingChanges = pending;
+        try {
+            ConcurrentMap<String, DoctorSlots> rebuilt = load();
+            swapLock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(rebuilt));
+                doctors = rebuilt;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.info("Slot availability index built for {} doctors over {} days", rebuilt.size(), warmupDays);
+        } finally {
+            pendingChanges = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    private ConcurrentMap<String, DoctorSlots> load() {
+        ConcurrentMap<String, DoctorSlots> rebuilt = new ConcurrentHashMap<>();
+        LocalDate today = LocalDate.now();
+        LocalDateTime from = today.atStartOfDay().minusNanos(1);
+        LocalDateTime to = today.plusDays(warmupDays).atStartOfDay();
+
+        Map<String, Map<LocalDate, List<Appointment>>> byDoctorAndDay = new HashMap<>();
+        for (Appointment appointment : appointmentRepository.findByAppointmentDateTimeBetween(from, to)) {
+            if (appointment.getDoctorId() == null || appointment.getAppointmentDateTime() == null) {
+                continue;
+            }
+            byDoctorAndDay
+                    .computeIfAbsent(appointment.getDoctorId(), id -> new HashMap<>())
+                    .computeIfAbsent(appointment.getAppointmentDateTime().toLocalDate(), d -> new ArrayList<>())
+                    .add(appointment);
+        }
+
+        for (Doctor doctor : doctorRepository.findAll()) {
+            DoctorSlots slots = new DoctorSlots(doctor.getId(), DoctorSchedule.of(doctor).orElse(null));
+            if (slots.schedule != null) {
+                Map<LocalDate, List<Appointment>> days = byDoctorAndDay.getOrDefault(doctor.getId(), Map.of());
+                for (int i = 0; i < warmupDays; i++) {
+                    LocalDate date = today.plusDays(i);
+                    if (slots.schedule.worksOn(date)) {
+                        slots.days.put(date, bitmap(slots.schedule, days.getOrDefault(date, List.of())));
+                    }
+                }
+            }
+            rebuilt.put(doctor.getId(), slots);
+        }
+        return rebuilt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Days are loaded lazily on first use, so a failed warm-up only costs latency
+            log.warn("Slot availability index warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.slot-index.prune-cron:0 5 0 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        doctors.values().forEach(slots -> slots.days.keySet().removeIf(date -> date.isBefore(today)));
+    }
+
+    private void update(Appointment appointment, boolean booked) {
+        if (appointment.getDoctorId() == null || appointment.getAppointmentDateTime() == null) {
+            return;
+        }
+        String doctorId = appointment.getDoctorId();
+        LocalDateTime dateTime = appointment.getAppointmentDateTime();
+        change(map -> update(map.get(doctorId), dateTime, booked));
+    }
+
+    private void update(DoctorSlots slots, LocalDateTime dateTime, boolean booked) {
+        if (slots == null || slots.schedule == null) {
+            // Not loaded yet: the next lookup reads the current state from the database
+            return;
+        }
+        int index = slots.schedule.slotIndex(dateTime);
+        if (index < 0) {
+            return;
+        }
+        AtomicLongArray bits = slots.day(dateTime.toLocalDate());
+        long mask = 1L << (index & 63);
+        if (booked) {
+            bits.getAndAccumulate(index >>> 6, mask, (current, m) -> current | m);
+        } else {
+            bits.getAndAccumulate(index >>> 6, mask, (current, m) -> current & ~m);
+        }
+    }
+
+    private void change(Consumer<ConcurrentMap<String, DoctorSlots>> change) {
+        swapLock.readLock().lock();
+        try {
+            change.accept(doctors);
+            Queue<Consumer<ConcurrentMap<String, DoctorSlots>>> pending = pendingChanges;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Only existing doctors are kept, so lookups with made-up ids cannot grow the map
+    private DoctorSlots slotsFor(String doctorId) {
+        DoctorSlots slots = doctors.get(doctorId);
+        if (slots != null) {
+            return slots;
+        }
+        Optional<Doctor> doctor = doctorRepository.findById(doctorId);
+        if (doctor.isEmpty()) {
+            return new DoctorSlots(doctorId, null);
+        }
+        return doctors.computeIfAbsent(doctorId, id -> new DoctorSlots(id, DoctorSchedule.of(doctor.get()).orElse(null)));
+    }
+
+    private static boolean isSet(AtomicLongArray bits, int index) {
+        return (bits.get(index >>> 6) & (1L << (index & 63))) != 0;
+    }
+
+    private static AtomicLongArray bitmap(DoctorSchedule schedule, List<Appointment> appointments) {
+        AtomicLongArray bits = new AtomicLongArray((schedule.getSlotsPerDay() + 63) >>> 6);
+        for (Appointment appointment : appointments) {
+            if (appointment.getAppointmentDateTime() == null || "CANCELLED".equals(appointment.getStatus())) {
+                continue;
+            }
+            int index = schedule.slotIndex(appointment.getAppointmentDateTime());
+            if (index >= 0) {
+                bits.set(index >>> 6, bits.get(index >>> 6) | (1L << (index & 63)));
+            }
+        }
+        return bits;
+    }
+
+    private final class DoctorSlots {
+        private final String doctorId;
+        private final DoctorSchedule schedule;
+        private final ConcurrentMap<LocalDate, AtomicLongArray> days = new ConcurrentHashMap<>();
+
+        private DoctorSlots(String doctorId, DoctorSchedule schedule) {
+            this.doctorId = doctorId;
+            this.schedule = schedule;
+        }
+
+        // Loaded outside the map: computeIfAbsent would hold a bin lock across the query. Two threads
+        // may both load a missing day; the first one stored wins.
+        private AtomicLongArray day(LocalDate date) {
+            AtomicLongArray bits = days.get(date);
+            if (bits != null) {
+                return bits;
+            }
+            AtomicLongArray loaded = loadDay(date);
+            bits = days.putIfAbsent(date, loaded);
+            return bits == null ? loaded : bits;
+        }
+
+        private AtomicLongArray loadDay(LocalDate date) {
+            return bitmap(schedule, appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(
+                    doctorId, date.atStartOfDay().minusNanos(1), date.plusDays(1).atStartOfDay()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class SlotService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Calls the consumer with the start of every open future slot between from and to (inclusive), in order
+    public void forEachFreeSlot(Doctor doctor, LocalDate from, LocalDate to, Consumer<LocalDateTime> consumer) {
+        Optional<DoctorSchedule> maybeSchedule = DoctorSchedule.of(doctor);
+        if (maybeSchedule.isEmpty() || to.isBefore(from)) {
+            return;
+        }
+        DoctorSchedule schedule = maybeSchedule.get();
+        int slotsPerDay = schedule.getSlotsPerDay();
+        BitSet booked = bookedSlots(doctor.getId(), schedule, from, to);
+
+        LocalDateTime now = LocalDateTime.now();
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        for (int day = 0; day < days; day++) {
+            LocalDate date = from.plusDays(day);
+            if (!schedule.worksOn(date)) {
+                continue;
+            }
+            int base = day * slotsPerDay;
+            for (int slot = booked.nextClearBit(base); slot < base + slotsPerDay; slot = booked.nextClearBit(slot + 1)) {
+                LocalDateTime start = schedule.slotStart(date, slot - base);
+                if (start.isAfter(now)) {
+                    consumer.accept(start);
+                }
+            }
+        }
+    }
+
+    // One sorted, projected scan over the range; booked slots become bits at day * slotsPerDay + slot
+    private BitSet bookedSlots(String doctorId, DoctorSchedule schedule, LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        BitSet booked = new BitSet(days * schedule.getSlotsPerDay());
+
+        Query query = new Query(Criteria.where("doctorId").is(doctorId)
+                .and("appointmentDateTime").gte(from.atStartOfDay()).lt(to.plusDays(1).atStartOfDay())
+                .and("status").ne("CANCELLED"))
+                .with(Sort.by("appointmentDateTime"));
+        query.fields().include("appointmentDateTime");
+
+        try (Stream<Appointment> appointments = mongoTemplate.stream(query, Appointment.class)) {
+            appointments.forEach(appointment -> {
+                LocalDateTime dateTime = appointment.getAppointmentDateTime();
+                int slot = dateTime == null ? -1 : schedule.slotIndex(dateTime);
+                if (slot >= 0) {
+                    int day = (int) ChronoUnit.DAYS.between(from, dateTime.toLocalDate());
+                    booked.set(day * schedule.getSlotsPerDay() + slot);
+                }
+            });
+        }
+        return booked;
+    }
+}
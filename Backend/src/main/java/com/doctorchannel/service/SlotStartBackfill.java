@@ -0,0 +1,113 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// The unique (doctor_id, slot_start) index only covers appointments that have a slot_start. Appointments
+// booked before it existed get theirs here, so bulk imports and waitlist bookings, which rely on the index
+// alone, cannot double-book them. Two old bookings already sharing a slot are logged and left as they are.
+@Slf4j
+@Component
+public class SlotStartBackfill {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Value("${app.slot-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            backfill();
+        } catch (RuntimeException e) {
+            log.warn("slot_start backfill failed: {}", e.getMessage());
+        }
+    }
+
+    // Returns the number of appointments given a slot_start
+    public int backfill() {
+        Query missing = new Query(Criteria.where("slotStart").exists(false).and("status").ne("CANCELLED")
+                .and("doctorId").ne(null).and("appointmentDateTime").ne(null));
+        missing.fields().include("doctorId", "appointmentDateTime");
+
+        int updated = 0;
+        int conflicts = 0;
+        List<Appointment> batch = new ArrayList<>(batchSize);
+        try (Stream<Appointment> appointments = mongoTemplate.stream(missing, Appointment.class)) {
+            for (Appointment appointment : (Iterable<Appointment>) appointments::iterator) {
+                batch.add(appointment);
+                if (batch.size() == batchSize) {
+                    int[] result = write(batch);
+                    updated += result[0];
+                    conflicts += result[1];
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            int[] result = write(batch);
+            updated += result[0];
+            conflicts += result[1];
+        }
+        if (updated > 0 || conflicts > 0) {
+            log.info("slot_start backfilled on {} appointments; {} share a slot with another booking", updated, conflicts);
+        }
+        return updated;
+    }
+
+    // {updated, conflicts}
+    private int[] write(List<Appointment> batch) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class);
+        for (Appointment appointment : batch) {
+            // Guarded, so an appointment cancelled or given a slot since it was read is left alone
+            ops.updateOne(new Query(Criteria.where("id").is(appointment.getId())
+                            .and("slotStart").exists(false).and("status").ne("CANCELLED")),
+                    Update.update("slotStart", slotAvailabilityIndex.slotStart(
+                            appointment.getDoctorId(), appointment.getAppointmentDateTime())));
+        }
+        try {
+            return new int[] {ops.execute().getModifiedCount(), 0};
+        } catch (BulkOperationException e) {
+            int conflicts = 0;
+            for (BulkWriteError error : e.getErrors()) {
+                Appointment appointment = batch.get(error.getIndex());
+                if (error.getCode() == DUPLICATE_KEY) {
+                    conflicts++;
+                    log.warn("Appointment {} is booked into the same slot ({} with doctor {}) as another one",
+                            appointment.getId(), appointment.getAppointmentDateTime(), appointment.getDoctorId());
+                } else {
+                    log.warn("Could not backfill slot_start on appointment {}: {}", appointment.getId(), error.getMessage());
+                }
+            }
+            return new int[] {e.getResult().getModifiedCount(), conflicts};
+        }
+    }
+}
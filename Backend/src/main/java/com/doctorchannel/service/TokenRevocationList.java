@@ -0,0 +1,36 @@
+package com.doctorchannel.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Token ids revoked before they expire (logout, refresh rotation). Entries are dropped once the
+// token would have expired anyway, so the list only ever holds tokens that are still live.
+@Component
+public class TokenRevocationList {
+
+    private final ConcurrentMap<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId != null) {
+            revoked.put(tokenId, expiresAt == null ? Instant.MAX : expiresAt);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.revocation-purge-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+}
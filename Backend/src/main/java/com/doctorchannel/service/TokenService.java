@@ -0,0 +1,112 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.config.JwtConfig;
+import com.doctorchannel.dto.TokenPair;
+import com.doctorchannel.model.User;
+import com.doctorchannel.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class TokenService {
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Autowired
+    private SecretKey jwtSigningKey;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.jwt.issuer:doctor-channeling}")
+    private String issuer;
+
+    @Value("${app.security.jwt.access-token-ttl:15m}")
+    private String accessTokenTtl;
+
+    @Value("${app.security.jwt.refresh-token-ttl:7d}")
+    private String refreshTokenTtl;
+
+    private JwtDecoder refreshTokenDecoder;
+
+    @PostConstruct
+    public void init() {
+        refreshTokenDecoder = JwtConfig.decoder(jwtSigningKey, revocationList, issuer, JwtConfig.REFRESH_TOKEN);
+    }
+
+    public TokenPair issue(User user) {
+        Duration accessTtl = DurationStyle.detectAndParse(accessTokenTtl);
+        Instant now = Instant.now();
+        String accessToken = encode(user, JwtConfig.ACCESS_TOKEN, now, accessTtl);
+        String refreshToken = encode(user, JwtConfig.REFRESH_TOKEN, now, DurationStyle.detectAndParse(refreshTokenTtl));
+        return new TokenPair(accessToken, refreshToken, accessTtl.getSeconds());
+    }
+
+    // Rotates the refresh token: the presented one is revoked and a new pair issued.
+    // This is the only token path that reads the user, so deactivations and role changes apply here.
+    public Optional<TokenPair> refresh(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = refreshTokenDecoder.decode(refreshToken);
+        } catch (JwtException e) {
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findById(jwt.getSubject())
+                .filter(u -> !Boolean.FALSE.equals(u.getIsActive()));
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        revocationList.revoke(jwt.getId(), jwt.getExpiresAt());
+        return Optional.of(issue(user.get()));
+    }
+
+    public void revoke(Jwt jwt) {
+        revocationList.revoke(jwt.getId(), jwt.getExpiresAt());
+    }
+
+    // Revokes a refresh token presented at logout; invalid or expired tokens need no revoking
+    public void revokeRefreshToken(String refreshToken) {
+        try {
+            revoke(refreshTokenDecoder.decode(refreshToken));
+        } catch (JwtException e) {
+            // nothing to revoke
+        }
+    }
+
+    private String encode(User user, String type, Instant issuedAt, Duration ttl) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())
+                .issuer(issuer)
+                .subject(user.getId())
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plus(ttl))
+                .claim(JwtConfig.TOKEN_TYPE_CLAIM, type)
+                .claim("email", user.getEmail())
+                .claim(JwtConfig.ROLES_CLAIM, List.of(user.getRole() == null ? "USER" : user.getRole()))
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
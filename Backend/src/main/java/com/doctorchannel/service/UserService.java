@@ -1,8 +1,12 @@
 package com.doctorchannel.service;
 
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.exception.ResourceNotFoundException;
 import com.doctorchannel.model.User;
 import com.doctorchannel.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +22,10 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    public CursorPage<User> getUsers(PageQuery page) {
+        return userRepository.findPage(page);
+    }
+
     public Optional<User> getUserById(String id) {
         return userRepository.findById(id);
     }
@@ -28,16 +36,21 @@ public class UserService {
 
     public User createUser(User user) {
         user.setIsActive(true);
+        user.setVersion(null);
         return userRepository.save(user);
     }
 
+    // Only the profile fields present in the request are $set; a stale version is rejected
     public User updateUser(String id, User userDetails) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.setFullName(userDetails.getFullName());
-        user.setPhone(userDetails.getPhone());
-        return userRepository.save(user);
+        Update update = new Update();
+        if (userDetails.getFullName() != null) {
+            update.set("fullName", userDetails.getFullName());
+        }
+        if (userDetails.getPhone() != null) {
+            update.set("phone", userDetails.getPhone());
+        }
+        return userRepository.updateFields(id, userDetails.getVersion(), update)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
     public void deleteUser(String id) {
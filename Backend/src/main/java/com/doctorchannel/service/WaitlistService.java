@@ -0,0 +1,246 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.exception.InvalidRequestException;
+import com.doctorchannel.exception.ResourceNotFoundException;
+import com.doctorchannel.exception.SlotUnavailableException;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.model.WaitlistEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Per doctor-day waitlists. When a booked slot is freed (cancelled or deleted) the head of that day's queue
+// is claimed with one findAndModify and booked through AppointmentService.createAppointment, so the unique
+// slot index decides a race with a direct booking exactly as it does between two bookings. The booking's
+// APPOINTMENT_CREATED outbox event is what tells the patient.
+@Slf4j
+@Service
+public class WaitlistService {
+
+    private static final Sort QUEUE_ORDER = Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("createdAt"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    // AppointmentService offers freed slots here, so it is looked up when first needed
+    @Autowired
+    private ObjectProvider<AppointmentService> appointmentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.waitlist.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.waitlist.max-per-day:100}")
+    private int maxPerDay;
+
+    @Value("${app.waitlist.claim-timeout:1m}")
+    private String claimTimeout;
+
+    // Joining again while already waiting returns the existing entry
+    public WaitlistEntry join(WaitlistEntry request) {
+        if (request == null || !hasText(request.getDoctorId()) || !hasText(request.getUserId()) || request.getDay() == null) {
+            throw new InvalidRequestException("doctorId, userId and day are required");
+        }
+        if (request.getDay().isBefore(LocalDate.now())) {
+            throw new InvalidRequestException("day is in the past");
+        }
+        Doctor doctor = doctorService.getDoctorById(request.getDoctorId())
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
+        if (DoctorSchedule.of(doctor).map(schedule -> !schedule.worksOn(request.getDay())).orElse(false)) {
+            throw new InvalidRequestException("Doctor does not work on " + request.getDay());
+        }
+        Optional<WaitlistEntry> existing = findWaiting(request.getDoctorId(), request.getDay(), request.getUserId());
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        if (mongoTemplate.count(queue(request.getDoctorId(), request.getDay()), WaitlistEntry.class) >= maxPerDay) {
+            throw new SlotUnavailableException("Waitlist for " + request.getDay() + " is full");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setDoctorId(request.getDoctorId());
+        entry.setDay(request.getDay());
+        entry.setUserId(request.getUserId());
+        entry.setPatientName(request.getPatientName());
+        entry.setPatientEmail(request.getPatientEmail());
+        entry.setPatientPhone(request.getPatientPhone());
+        entry.setSymptoms(request.getSymptoms());
+        entry.setPaymentOption(request.getPaymentOption());
+        entry.setStatus(WaitlistEntry.WAITING);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setExpiresAt(request.getDay().plusDays(1).atStartOfDay());
+        try {
+            return mongoTemplate.insert(entry);
+        } catch (DuplicateKeyException e) {
+            // A concurrent join by the same patient got in first
+            return findWaiting(entry.getDoctorId(), entry.getDay(), entry.getUserId()).orElseThrow(() -> e);
+        }
+    }
+
+    public void leave(String id) {
+        boolean left = mongoTemplate.updateFirst(new Query(Criteria.where("id").is(id).and("status").is(WaitlistEntry.WAITING)),
+                Update.update("status", WaitlistEntry.LEFT), WaitlistEntry.class).getMatchedCount() > 0;
+        if (!left) {
+            throw new ResourceNotFoundException("No waiting entry " + id);
+        }
+    }
+
+    public WaitlistEntry setPriority(String id, int priority) {
+        WaitlistEntry entry = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id).and("status").is(WaitlistEntry.WAITING)),
+                Update.update("priority", priority), FindAndModifyOptions.options().returnNew(true), WaitlistEntry.class);
+        if (entry == null) {
+            throw new ResourceNotFoundException("No waiting entry " + id);
+        }
+        return entry;
+    }
+
+    public List<WaitlistEntry> getUserEntries(String userId) {
+        return mongoTemplate.find(new Query(Criteria.where("userId").is(userId).and("day").gte(LocalDate.now()))
+                .with(Sort.by("day")), WaitlistEntry.class);
+    }
+
+    // The queue in the order slots are handed out
+    public List<WaitlistEntry> getQueue(String doctorId, LocalDate day) {
+        return mongoTemplate.find(queue(doctorId, day).with(QUEUE_ORDER), WaitlistEntry.class);
+    }
+
+    // Called once a slot-holding appointment is cancelled or deleted. Failures are logged, never thrown:
+    // the cancellation itself has already gone through.
+    public void offer(Appointment freed) {
+        if (!enabled || freed == null || freed.getDoctorId() == null || freed.getAppointmentDateTime() == null
+                || !freed.getAppointmentDateTime().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        try {
+            assign(freed.getDoctorId(), freed.getAppointmentDateTime());
+        } catch (RuntimeException e) {
+            meterRegistry.counter("waitlist.assignment.failures").increment();
+            log.warn("Could not offer {} with doctor {} to the waitlist: {}",
+                    freed.getAppointmentDateTime(), freed.getDoctorId(), e.getMessage());
+        }
+    }
+
+    public void offerAll(List<Appointment> freed) {
+        freed.forEach(this::offer);
+    }
+
+    Optional<WaitlistEntry> assign(String doctorId, LocalDateTime slot) {
+        LocalDateTime now = LocalDateTime.now();
+        // Claiming takes the head out of the queue, so no other node can hand it a second slot
+        WaitlistEntry head = mongoTemplate.findAndModify(queue(doctorId, slot.toLocalDate()).with(QUEUE_ORDER),
+                Update.update("status", WaitlistEntry.ASSIGNING).set("claimedAt", now),
+                FindAndModifyOptions.options().returnNew(true), WaitlistEntry.class);
+        if (head == null) {
+            return Optional.empty();
+        }
+
+        Appointment appointment;
+        try {
+            appointment = appointmentService.getObject().createAppointment(appointmentFor(head, slot));
+        } catch (SlotUnavailableException e) {
+            // Booked directly between being freed and now; the patient keeps their place for the next one
+            release(head);
+            meterRegistry.counter("waitlist.assignment.conflicts").increment();
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            release(head);
+            throw e;
+        }
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(head.getId()).and("status").is(WaitlistEntry.ASSIGNING)),
+                Update.update("status", WaitlistEntry.ASSIGNED).set("appointmentId", appointment.getId()).set("assignedAt", now),
+                WaitlistEntry.class);
+        head.setStatus(WaitlistEntry.ASSIGNED);
+        head.setAppointmentId(appointment.getId());
+        head.setAssignedAt(now);
+        meterRegistry.counter("waitlist.assigned").increment();
+        log.info("Waitlist entry {} booked into appointment {} ({} with doctor {})",
+                head.getId(), appointment.getId(), slot, doctorId);
+        return Optional.of(head);
+    }
+
+    // A node that died between claiming an entry and recording the booking leaves it ASSIGNING. If the
+    // booking was made, the entry is marked assigned; otherwise it goes back to its place in the queue.
+    @Scheduled(fixedDelayString = "${app.waitlist.sweep-interval:PT1M}")
+    public void recoverStaleClaims() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(DurationStyle.detectAndParse(claimTimeout));
+        try {
+            for (WaitlistEntry entry : mongoTemplate.find(new Query(Criteria.where("status").is(WaitlistEntry.ASSIGNING)
+                    .and("claimedAt").lt(before)), WaitlistEntry.class)) {
+                Appointment booked = mongoTemplate.findOne(new Query(Criteria.where("userId").is(entry.getUserId())
+                        .and("doctorId").is(entry.getDoctorId())
+                        .and("appointmentDateTime").gte(entry.getDay().atStartOfDay()).lt(entry.getDay().plusDays(1).atStartOfDay())
+                        .and("createdAt").gte(entry.getClaimedAt())
+                        .and("status").ne("CANCELLED")), Appointment.class);
+                Query claimed = new Query(Criteria.where("id").is(entry.getId()).and("status").is(WaitlistEntry.ASSIGNING)
+                        .and("claimedAt").is(entry.getClaimedAt()));
+                if (booked != null) {
+                    mongoTemplate.updateFirst(claimed, Update.update("status", WaitlistEntry.ASSIGNED)
+                            .set("appointmentId", booked.getId()).set("assignedAt", booked.getCreatedAt()), WaitlistEntry.class);
+                } else {
+                    mongoTemplate.updateFirst(claimed, Update.update("status", WaitlistEntry.WAITING).unset("claimedAt"),
+                            WaitlistEntry.class);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Waitlist claim recovery failed: {}", e.getMessage());
+        }
+    }
+
+    private void release(WaitlistEntry entry) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(entry.getId()).and("status").is(WaitlistEntry.ASSIGNING)),
+                Update.update("status", WaitlistEntry.WAITING).unset("claimedAt"), WaitlistEntry.class);
+    }
+
+    private Optional<WaitlistEntry> findWaiting(String doctorId, LocalDate day, String userId) {
+        return Optional.ofNullable(mongoTemplate.findOne(queue(doctorId, day).addCriteria(Criteria.where("userId").is(userId)),
+                WaitlistEntry.class));
+    }
+
+    private static Query queue(String doctorId, LocalDate day) {
+        return new Query(Criteria.where("doctorId").is(doctorId).and("day").is(day).and("status").is(WaitlistEntry.WAITING));
+    }
+
+    private static Appointment appointmentFor(WaitlistEntry entry, LocalDateTime slot) {
+        Appointment appointment = new Appointment();
+        appointment.setUserId(entry.getUserId());
+        appointment.setDoctorId(entry.getDoctorId());
+        appointment.setPatientName(entry.getPatientName());
+        appointment.setPatientEmail(entry.getPatientEmail());
+        appointment.setPatientPhone(entry.getPatientPhone());
+        appointment.setSymptoms(entry.getSymptoms());
+        appointment.setPaymentOption(entry.getPaymentOption());
+        appointment.setAppointmentDateTime(slot);
+        return appointment;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
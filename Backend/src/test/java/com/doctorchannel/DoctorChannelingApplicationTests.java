@@ -2,14 +2,20 @@ package com.doctorchannel;
 
 import com.doctorchannel.repository.AppointmentRepository;
 import com.doctorchannel.repository.DoctorRepository;
+import com.doctorchannel.repository.ReactiveAppointmentRepository;
+import com.doctorchannel.repository.ReactiveDoctorRepository;
 import com.doctorchannel.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
 import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
@@ -17,7 +23,10 @@ import org.springframework.test.context.ActiveProfiles;
 @EnableAutoConfiguration(exclude = {
     MongoAutoConfiguration.class,
     MongoDataAutoConfiguration.class,
-    MongoRepositoriesAutoConfiguration.class
+    MongoRepositoriesAutoConfiguration.class,
+    MongoReactiveAutoConfiguration.class,
+    MongoReactiveDataAutoConfiguration.class,
+    MongoReactiveRepositoriesAutoConfiguration.class
 })
 class DoctorChannelingApplicationTests {
 
@@ -30,6 +39,15 @@ class DoctorChannelingApplicationTests {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private ReactiveDoctorRepository reactiveDoctorRepository;
+
+    @MockBean
+    private ReactiveAppointmentRepository reactiveAppointmentRepository;
+
+    @MockBean
+    private MongoTemplate mongoTemplate;
+
     @Test
     void contextLoads() {
         // Verify that the Spring context loads successfully
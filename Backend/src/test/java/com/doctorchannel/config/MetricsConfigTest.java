@@ -0,0 +1,60 @@
+package com.doctorchannel.config;
+
+import com.doctorchannel.controller.DoctorController;
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsConfigTest {
+
+    @Test
+    void observationConvention_ShouldTagRequestWithControllerName() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctors/doc123");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new HandlerMethod(
+                new DoctorController(), DoctorController.class.getMethod("getDoctorById", String.class, WebRequest.class)));
+        ServerRequestObservationContext context =
+                new ServerRequestObservationContext(request, new MockHttpServletResponse());
+
+        MetricsConfig.ControllerTaggingObservationConvention convention =
+                new MetricsConfig.ControllerTaggingObservationConvention();
+
+        assertTrue(convention.getLowCardinalityKeyValues(context).stream()
+                .anyMatch(KeyValue.of("controller", "DoctorController")::equals));
+    }
+
+    @Test
+    void observationConvention_WithoutHandler_ShouldTagNone() {
+        ServerRequestObservationContext context = new ServerRequestObservationContext(
+                new MockHttpServletRequest("GET", "/unknown"), new MockHttpServletResponse());
+
+        assertTrue(new MetricsConfig.ControllerTaggingObservationConvention().getLowCardinalityKeyValues(context)
+                .stream().anyMatch(KeyValue.of("controller", "none")::equals));
+    }
+
+    @Test
+    void passwordEncoder_ShouldBeWrappedWithTimer() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+
+        Object wrapped = MetricsConfig.timedPasswordEncoderPostProcessor(beanFactory.getBeanProvider(MeterRegistry.class))
+                .postProcessAfterInitialization(new BCryptPasswordEncoder(4), "passwordEncoder");
+
+        PasswordEncoder encoder = (PasswordEncoder) wrapped;
+        assertTrue(encoder.matches("secret", encoder.encode("secret")));
+        assertEquals(1, registry.get("security.password.encoder").tag("operation", "encode").timer().count());
+        assertEquals(1, registry.get("security.password.encoder").tag("operation", "matches").timer().count());
+    }
+}
@@ -0,0 +1,43 @@
+package com.doctorchannel.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderConfigTest {
+
+    @Test
+    void legacyHashWithoutPrefix_ShouldMatchAndBeFlaggedForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordEncoder encoder = SecurityConfig.passwordEncoder(4);
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertTrue(encoder.encode("secret").startsWith("{bcrypt}$2a$04$"));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldOnlyFlagWeakerHashes() {
+        String weak = SecurityConfig.passwordEncoder(4).encode("secret");
+        String strong = SecurityConfig.passwordEncoder(6).encode("secret");
+        PasswordEncoder encoder = SecurityConfig.passwordEncoder(5);
+
+        assertTrue(encoder.matches("secret", weak));
+        assertTrue(encoder.upgradeEncoding(weak));
+        assertTrue(encoder.matches("secret", strong));
+        assertFalse(encoder.upgradeEncoding(strong));
+    }
+
+    @Test
+    void pickStrength_ShouldStayWithinBudgetAndBounds() {
+        long tenMs = Duration.ofMillis(10).toNanos();
+
+        assertEquals(13, BCryptCalibration.pickStrength(tenMs, 10, 14, Duration.ofMillis(100)));
+        assertEquals(14, BCryptCalibration.pickStrength(tenMs, 10, 14, Duration.ofSeconds(10)));
+        assertEquals(10, BCryptCalibration.pickStrength(tenMs, 10, 14, Duration.ofMillis(5)));
+    }
+}
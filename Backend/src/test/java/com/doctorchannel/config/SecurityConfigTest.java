@@ -0,0 +1,155 @@
+package com.doctorchannel.config;
+
+import com.doctorchannel.controller.DoctorController;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.WaitlistEntry;
+import com.doctorchannel.repository.AppointmentRepository;
+import com.doctorchannel.service.DoctorService;
+import com.doctorchannel.service.SlotService;
+import com.doctorchannel.service.TokenRevocationList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Only the access rules are under test: a request they let through ends in a 404, as the slice has no actuator
+@WebMvcTest(DoctorController.class)
+@Import({SecurityConfig.class, JwtConfig.class, TokenRevocationList.class, AppointmentAccess.class})
+@TestPropertySource(properties = {
+        "app.security.password.strength=4",
+        "app.metrics.scrape-password=scrape-secret"
+})
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DoctorService doctorService;
+
+    @MockBean
+    private SlotService slotService;
+
+    @MockBean
+    private AppointmentRepository appointmentRepository;
+
+    @MockBean
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void health_ShouldBePublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void cacheFlush_WithoutAdmin_ShouldBeRejected() throws Exception {
+        mockMvc.perform(delete("/actuator/caches"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser
+    void metrics_AsPatient_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_ShouldTakeScrapeCredentialOnly() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = "user123")
+    void userRoutes_ShouldOnlyServeTheCallersOwnId() throws Exception {
+        mockMvc.perform(get("/api/appointments/user/user123"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/appointments/user/user456"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/appointments/user/user456/history"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/waitlist/user/user456"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/appointments/doctor/doc123"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "user123")
+    void userById_ShouldOnlyServeTheCaller() throws Exception {
+        mockMvc.perform(get("/api/users/user123"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/user456"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/users/user456").contentType("application/json").content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "user123")
+    void appointmentById_ShouldOnlyServeItsOwner() throws Exception {
+        Appointment own = new Appointment();
+        own.setUserId("user123");
+        Appointment other = new Appointment();
+        other.setUserId("user456");
+        when(appointmentRepository.findById("apt1")).thenReturn(Optional.of(own));
+        when(appointmentRepository.findById("apt2")).thenReturn(Optional.of(other));
+
+        mockMvc.perform(get("/api/appointments/apt1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/appointments/apt2"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/appointments/apt2"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/appointments/missing"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/appointments/apt1/status").param("status", "CONFIRMED"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "user123")
+    void leaveWaitlist_ShouldOnlyServeTheEntrysOwner() throws Exception {
+        WaitlistEntry other = new WaitlistEntry();
+        other.setUserId("user456");
+        when(mongoTemplate.findOne(any(Query.class), any())).thenReturn(other);
+
+        mockMvc.perform(delete("/api/waitlist/w1"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void adminRoutes_ShouldServeAdmins() throws Exception {
+        mockMvc.perform(get("/api/appointments/user/user456"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/appointments/apt2"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/appointments/apt2/status").param("status", "CONFIRMED"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/user456"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,88 @@
+package com.doctorchannel.controller;
+
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.service.BrowseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BrowseController.class)
+// Streamed items are written on the emitter's thread; printing the result would read the headers concurrently
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class BrowseControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BrowseService browseService;
+
+    private static Doctor doctor(String id, String name) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setName(name);
+        doctor.setSpecialty("Cardiologist");
+        return doctor;
+    }
+
+    @Test
+    @WithMockUser
+    void browseDoctors_AsNdjson_ShouldWriteOneDoctorPerLine() throws Exception {
+        when(browseService.searchDoctors(any(DoctorSearchCriteria.class)))
+                .thenReturn(Flux.just(doctor("d1", "Dr. A"), doctor("d2", "Dr. B")));
+
+        MvcResult result = mockMvc.perform(get("/api/browse/doctors")
+                        .param("specialty", "cardiologist")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern(
+                        "(?s)\\{[^\\n]*\"id\":\"d1\"[^\\n]*\\}\\n\\{[^\\n]*\"id\":\"d2\"[^\\n]*\\}\\n")));
+    }
+
+    @Test
+    @WithMockUser
+    void getDoctor_WhenMissing_ShouldReturnNotFound() throws Exception {
+        when(browseService.getDoctor("missing")).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/browse/doctors/missing"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void browseDoctorAppointments_WithReversedRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/browse/doctors/d1/appointments")
+                        .param("from", "2026-03-10")
+                        .param("to", "2026-03-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(browseService);
+    }
+}
@@ -1,21 +1,37 @@
 package com.doctorchannel.controller;
 
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.dto.PageQuery;
 import com.doctorchannel.model.Doctor;
 import com.doctorchannel.service.DoctorService;
+import com.doctorchannel.service.SlotService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +46,9 @@ class DoctorControllerTest {
     @MockBean
     private DoctorService doctorService;
 
+    @MockBean
+    private SlotService slotService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -50,14 +69,34 @@ class DoctorControllerTest {
     @Test
     @WithMockUser
     void getAllDoctors_ShouldReturnDoctorsList() throws Exception {
-        when(doctorService.getAllDoctors()).thenReturn(Arrays.asList(testDoctor));
+        when(doctorService.getDoctors(any(PageQuery.class)))
+                .thenReturn(new CursorPage<>(Arrays.asList(testDoctor), null));
 
         mockMvc.perform(get("/api/doctors"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].name").value("Dr. John Smith"))
                 .andExpect(jsonPath("$[0].specialty").value("Cardiologist"));
     }
 
+    @Test
+    @WithMockUser
+    void getAllDoctors_WithCursor_ShouldBindPageQueryAndExposeNextCursor() throws Exception {
+        // version is added to a sparse fieldset so the page's ETag follows changes
+        PageQuery expected = new PageQuery("doc100", 1, "name,desc", Arrays.asList("name", "city", "version"));
+        when(doctorService.getDoctors(expected))
+                .thenReturn(new CursorPage<>(Arrays.asList(testDoctor), "doc123"));
+
+        mockMvc.perform(get("/api/doctors")
+                        .param("after", "doc100")
+                        .param("limit", "1")
+                        .param("sort", "name,desc")
+                        .param("fields", "name,city"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "doc123"))
+                .andExpect(jsonPath("$[0].name").value("Dr. John Smith"));
+    }
+
     @Test
     @WithMockUser
     void getDoctorById_WhenExists_ShouldReturnDoctor() throws Exception {
@@ -68,6 +107,89 @@ class DoctorControllerTest {
                 .andExpect(jsonPath("$.name").value("Dr. John Smith"));
     }
 
+    @Test
+    @WithMockUser
+    void getDoctorById_ShouldSendVersionETagAndReturn304WhenItMatches() throws Exception {
+        testDoctor.setVersion(4L);
+        when(doctorService.getDoctorById("doc123")).thenReturn(Optional.of(testDoctor));
+
+        mockMvc.perform(get("/api/doctors/doc123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"doc123-4\""))
+                .andExpect(header().string("Cache-Control", "max-age=30, must-revalidate, public"));
+
+        mockMvc.perform(get("/api/doctors/doc123").header("If-None-Match", "\"doc123-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"doc123-4\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/doctors/doc123").header("If-None-Match", "\"doc123-3\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Dr. John Smith"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllDoctors_WhenPageUnchanged_ShouldReturn304() throws Exception {
+        testDoctor.setVersion(1L);
+        when(doctorService.getDoctors(any(PageQuery.class)))
+                .thenReturn(new CursorPage<>(Arrays.asList(testDoctor), null));
+
+        String etag = mockMvc.perform(get("/api/doctors"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/doctors").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+
+        testDoctor.setVersion(2L);
+        mockMvc.perform(get("/api/doctors").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllDoctors_CompactView_ShouldReturnShortNamesWithoutNulls() throws Exception {
+        testDoctor.setAvailableDays(Arrays.asList("Monday", "Wednesday", "Friday"));
+        when(doctorService.getDoctors(any(PageQuery.class)))
+                .thenReturn(new CursorPage<>(Arrays.asList(testDoctor), null));
+
+        String full = mockMvc.perform(get("/api/doctors"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getContentAsString();
+        String compact = mockMvc.perform(get("/api/doctors").param("view", "compact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].n").value("Dr. John Smith"))
+                .andExpect(jsonPath("$[0].d").value(0b10101))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].i").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(compact.length() * 2 < full.length(), compact + " vs " + full);
+
+        mockMvc.perform(get("/api/doctors").accept(CompactViewAdvice.COMPACT_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CompactViewAdvice.COMPACT_JSON))
+                .andExpect(jsonPath("$[0].s").value("Cardiologist"));
+    }
+
+    @Test
+    @WithMockUser
+    void getDoctorById_WithSmileAccept_ShouldWriteSmile() throws Exception {
+        when(doctorService.getDoctorById("doc123")).thenReturn(Optional.of(testDoctor));
+
+        byte[] body = mockMvc.perform(get("/api/doctors/doc123").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", "\"doc123-0-smile\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Doctor decoded = new ObjectMapper(new SmileFactory()).readValue(body, Doctor.class);
+        assertEquals("Dr. John Smith", decoded.getName());
+    }
+
     @Test
     @WithMockUser
     void getDoctorById_WhenNotExists_ShouldReturn404() throws Exception {
@@ -77,6 +199,61 @@ class DoctorControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser
+    void getFreeSlots_ShouldStreamOpenSlots() throws Exception {
+        testDoctor.setSlotDuration(30);
+        when(doctorService.getDoctorById("doc123")).thenReturn(Optional.of(testDoctor));
+        LocalDate day = LocalDate.of(2030, 1, 7);
+        doAnswer(invocation -> {
+            Consumer<LocalDateTime> consumer = invocation.getArgument(3);
+            consumer.accept(day.atTime(9, 0));
+            consumer.accept(day.atTime(10, 30));
+            return null;
+        }).when(slotService).forEachFreeSlot(eq(testDoctor), eq(day), eq(day), any());
+
+        MvcResult result = mockMvc.perform(get("/api/doctors/doc123/slots")
+                        .param("from", "2030-01-07")
+                        .param("to", "2030-01-07"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start").value("2030-01-07T09:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-07T09:30"))
+                .andExpect(jsonPath("$[1].start").value("2030-01-07T10:30"));
+    }
+
+    @Test
+    @WithMockUser
+    void getFreeSlots_WhenRangeReversed_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/doctors/doc123/slots")
+                        .param("from", "2030-01-07")
+                        .param("to", "2030-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void searchDoctors_ShouldBindAllCriteria() throws Exception {
+        DoctorSearchCriteria criteria = new DoctorSearchCriteria("Cardiologist", "Kalmunai", true,
+                1000.0, 3000.0, Arrays.asList("Monday", "Friday"));
+        when(doctorService.searchDoctors(eq(criteria), any(PageQuery.class)))
+                .thenReturn(new CursorPage<>(Arrays.asList(testDoctor), null));
+
+        mockMvc.perform(get("/api/doctors/search")
+                        .param("specialty", "Cardiologist")
+                        .param("city", "Kalmunai")
+                        .param("active", "true")
+                        .param("minFee", "1000")
+                        .param("maxFee", "3000")
+                        .param("availableDays", "Monday,Friday"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].id").value("doc123"));
+    }
+
     @Test
     @WithMockUser
     void searchBySpecialty_ShouldReturnMatchingDoctors() throws Exception {
@@ -0,0 +1,63 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.DoctorSearchCriteria;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.model.Doctor;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorRepositoryCustomImplTest {
+
+    @Mock
+    private KeysetPager keysetPager;
+
+    @InjectMocks
+    private DoctorRepositoryCustomImpl repository;
+
+    @Test
+    void search_ShouldCombineCriteriaInIndexOrderWithIndexCollation() {
+        PageQuery page = new PageQuery();
+        when(keysetPager.findPage(eq(Doctor.class), any(Criteria.class), eq(page), any(Collation.class)))
+                .thenReturn(new CursorPage<>(List.of(), null));
+
+        repository.search(new DoctorSearchCriteria(" Cardiologist ", "Kalmunai", true, 1000.0, 3000.0,
+                Arrays.asList("Monday")), page);
+
+        ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+        ArgumentCaptor<Collation> collation = ArgumentCaptor.forClass(Collation.class);
+        verify(keysetPager).findPage(eq(Doctor.class), criteria.capture(), eq(page), collation.capture());
+
+        List<?> and = (List<?>) criteria.getValue().getCriteriaObject().get("$and");
+        assertEquals(Arrays.asList(
+                new Document("specialty", "Cardiologist"),
+                new Document("city", "Kalmunai"),
+                new Document("isActive", true),
+                new Document("consultationFee", new Document("$gte", 1000.0).append("$lte", 3000.0)),
+                new Document("availableDays", new Document("$all", Arrays.asList("Monday")))), and);
+        assertEquals(DoctorRepositoryCustomImpl.SEARCH_COLLATION.toDocument(), collation.getValue().toDocument());
+    }
+
+    @Test
+    void search_WithNoCriteria_ShouldPassNoFilter() {
+        assertNull(DoctorRepositoryCustomImpl.toCriteria(new DoctorSearchCriteria()));
+        assertEquals(new Document("city", "Kalmunai"), DoctorRepositoryCustomImpl.toCriteria(
+                new DoctorSearchCriteria(null, "Kalmunai", null, null, null, null)).getCriteriaObject());
+    }
+}
@@ -0,0 +1,114 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.dto.CursorPage;
+import com.doctorchannel.dto.PageQuery;
+import com.doctorchannel.exception.InvalidRequestException;
+import com.doctorchannel.model.Appointment;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeysetPagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private KeysetPager keysetPager;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        ReflectionTestUtils.setField(keysetPager, "defaultLimit", 100);
+        ReflectionTestUtils.setField(keysetPager, "maxLimit", 500);
+    }
+
+    @Test
+    void findPage_ShouldFetchOneExtraRowAndReturnCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(appointment("a1"), appointment("a2"), appointment("a3"))));
+
+        CursorPage<Appointment> page = keysetPager.findPage(Appointment.class,
+                Criteria.where("userId").is("user123"), new PageQuery(null, 2, null, Arrays.asList("status")));
+
+        assertEquals(2, page.getItems().size());
+        assertEquals("a2", page.getNextCursor());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Appointment.class));
+        assertEquals(3, query.getValue().getLimit());
+        assertEquals(new Document("userId", "user123"), query.getValue().getQueryObject());
+        assertEquals(new Document("id", 1), query.getValue().getSortObject());
+        assertEquals(new Document("status", 1).append("id", 1), query.getValue().getFieldsObject());
+    }
+
+    @Test
+    void findPage_SortedByField_ShouldContinueAfterAnchorDocument() {
+        Document anchor = new Document("_id", "a2").append("appointment_date_time", "2030-01-07T09:00");
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("appointments"))).thenReturn(anchor);
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(appointment("a3")));
+
+        CursorPage<Appointment> page = keysetPager.findPage(Appointment.class, null,
+                new PageQuery("a2", 10, "appointmentDateTime,desc", null));
+
+        assertNull(page.getNextCursor());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Appointment.class));
+        assertEquals(new Document("appointmentDateTime", -1).append("id", -1), query.getValue().getSortObject());
+        assertTrue(query.getValue().getQueryObject().containsKey("$or"));
+    }
+
+    @Test
+    void findPage_AfterAnchorWithNullSortValue_ShouldContinueIntoNonNullValues() {
+        Document anchor = new Document("_id", "a2");
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("appointments"))).thenReturn(anchor);
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(appointment("a3")));
+
+        keysetPager.findPage(Appointment.class, null, new PageQuery("a2", 10, "appointmentDateTime", null));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Appointment.class));
+        Document tie = new Document("$and", List.of(new Document("appointment_date_time", null),
+                new Document("_id", new Document("$gt", "a2"))));
+        Document nonNull = new Document("appointment_date_time", new Document("$ne", null));
+        assertEquals(new Document("$or", List.of(tie, nonNull)), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void findPage_WithUnknownField_ShouldReject() {
+        assertThrows(InvalidRequestException.class, () -> keysetPager.findPage(Appointment.class, null,
+                new PageQuery(null, null, "password", null)));
+    }
+
+    private static Appointment appointment(String id) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        return appointment;
+    }
+}
@@ -0,0 +1,48 @@
+package com.doctorchannel.repository;
+
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlanVerifierTest {
+
+    @Test
+    void scansCollection_ShouldFindCollscanInClassicShardedAndSbePlans() {
+        Document indexed = Document.parse("{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: "
+                + "{stage: 'IXSCAN', indexName: 'doctor_date'}}, rejectedPlans: [{stage: 'COLLSCAN'}]}}");
+        Document classic = Document.parse("{queryPlanner: {winningPlan: {stage: 'SORT', inputStage: "
+                + "{stage: 'COLLSCAN', direction: 'forward'}}}}");
+        Document sharded = Document.parse("{queryPlanner: {winningPlan: {stage: 'SHARD_MERGE', shards: ["
+                + "{shardName: 's0', winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}}},"
+                + "{shardName: 's1', winningPlan: {stage: 'COLLSCAN'}}]}}}");
+        Document sbe = Document.parse("{explainVersion: '2', queryPlanner: {winningPlan: {"
+                + "queryPlan: {stage: 'COLLSCAN', planNodeId: 1}, slotBasedPlan: {stages: '[1] scan s1'}}}}");
+
+        assertFalse(QueryPlanVerifier.scansCollection(indexed));
+        assertTrue(QueryPlanVerifier.scansCollection(classic));
+        assertTrue(QueryPlanVerifier.scansCollection(sharded));
+        assertTrue(QueryPlanVerifier.scansCollection(sbe));
+    }
+
+    @Test
+    void sampleQuery_ShouldMirrorDerivedQueryShape() {
+        Query range = QueryPlanVerifier.sampleQuery(new PartTree(
+                "findByDoctorIdAndAppointmentDateTimeBetweenOrderByAppointmentDateTime", Appointment.class));
+
+        List<?> parts = range.getQueryObject().getList("$and", Document.class);
+        assertEquals("sample", ((Document) parts.get(0)).get("doctorId"));
+        Document dateRange = (Document) ((Document) parts.get(1)).get("appointmentDateTime");
+        assertTrue(dateRange.containsKey("$gte") && dateRange.containsKey("$lte"));
+        assertEquals(new Document("appointmentDateTime", 1), range.getSortObject());
+
+        Query regex = QueryPlanVerifier.sampleQuery(new PartTree("findByNameContainingIgnoreCase", Doctor.class));
+        assertNotNull(regex.getQueryObject().get("name"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentArchiveServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private AppointmentArchiveService appointmentArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(appointmentArchiveService, "batchSize", 1000);
+    }
+
+    private static Document row(String id, LocalDateTime at) {
+        return new Document("_id", id).append("appointment_date_time", Date.from(at.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    private static Appointment appointment(String id, LocalDateTime at, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setUserId("user1");
+        appointment.setAppointmentDateTime(at);
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveBatch_ShouldCopyIntoMonthlyCollectionsBeforeDeletingFromHot() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("appointments"))).thenReturn(List.of(
+                row("a1", LocalDateTime.of(2024, 1, 30, 9, 0)),
+                row("a2", LocalDateTime.of(2024, 2, 2, 9, 0)),
+                row("a3", LocalDateTime.of(2024, 2, 20, 9, 0))));
+        MongoCollection<Document> hot = mock(MongoCollection.class);
+        MongoCollection<Document> january = mock(MongoCollection.class);
+        MongoCollection<Document> february = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection("appointments")).thenReturn(hot);
+        when(mongoTemplate.getCollection("appointments_archive_2024_01")).thenReturn(january);
+        when(mongoTemplate.getCollection("appointments_archive_2024_02")).thenReturn(february);
+        when(mongoTemplate.indexOps(anyString())).thenReturn(mock(IndexOperations.class));
+        when(hot.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(0, 0, 3, 0, List.of(), List.of()));
+
+        int moved = appointmentArchiveService.archiveBatch(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        assertEquals(3, moved);
+        var order = inOrder(january, february, hot);
+        order.verify(january).bulkWrite(argThat(writes -> writes.size() == 1), any(BulkWriteOptions.class));
+        order.verify(february).bulkWrite(argThat(writes -> writes.size() == 2), any(BulkWriteOptions.class));
+        order.verify(hot).bulkWrite(argThat(writes -> writes.size() == 3), any(BulkWriteOptions.class));
+        assertEquals(3.0, meterRegistry.counter("appointments.archived").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveBatch_WhenARowChangedAfterTheCopy_ShouldKeepItHotAndDropTheCopy() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("appointments")))
+                .thenReturn(List.of(
+                        row("a1", LocalDateTime.of(2024, 1, 10, 9, 0)).append("version", 2L),
+                        row("a2", LocalDateTime.of(2024, 1, 20, 9, 0)).append("version", 5L)),
+                        List.of(new Document("_id", "a2")));
+        MongoCollection<Document> hot = mock(MongoCollection.class);
+        MongoCollection<Document> january = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection("appointments")).thenReturn(hot);
+        when(mongoTemplate.getCollection("appointments_archive_2024_01")).thenReturn(january);
+        when(mongoTemplate.indexOps(anyString())).thenReturn(mock(IndexOperations.class));
+        when(hot.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(0, 0, 1, 0, List.of(), List.of()));
+
+        int moved = appointmentArchiveService.archiveBatch(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        assertEquals(1, moved);
+        verify(january).deleteMany(Filters.in("_id", List.of("a2")));
+        assertEquals(1.0, meterRegistry.counter("appointments.archived").count());
+    }
+
+    @Test
+    void getUserHistory_ShouldMergeHotAndArchivedMonthsNewestFirst() {
+        LocalDateTime recent = LocalDateTime.of(2024, 3, 5, 10, 0);
+        LocalDateTime old = LocalDateTime.of(2024, 1, 10, 10, 0);
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class), eq("appointments")))
+                .thenReturn(List.of(appointment("a1", old, "COMPLETED"), appointment("a2", recent, "CONFIRMED")));
+        when(mongoTemplate.getCollectionNames())
+                .thenReturn(Set.of("appointments", "appointments_archive_2024_01", "appointments_archive_2023_06"));
+        // a1 is also in the archive, left over from an interrupted run
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class), eq("appointments_archive_2024_01")))
+                .thenReturn(List.of(appointment("a1", old, "CANCELLED"), appointment("a0", old.minusDays(5), "COMPLETED")));
+
+        List<Appointment> history = appointmentArchiveService.getUserHistory("user1",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31));
+
+        assertEquals(List.of("a2", "a1", "a0"), history.stream().map(Appointment::getId).toList());
+        assertEquals("COMPLETED", history.get(1).getStatus());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Appointment.class), eq("appointments_archive_2023_06"));
+    }
+}
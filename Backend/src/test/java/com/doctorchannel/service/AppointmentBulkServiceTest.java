@@ -0,0 +1,161 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.dto.BulkItemResult;
+import com.doctorchannel.dto.BulkResult;
+import com.doctorchannel.dto.StatusUpdate;
+import com.doctorchannel.exception.SlotUnavailableException;
+import com.doctorchannel.model.Appointment;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentBulkServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Mock
+    private AppointmentStatsService appointmentStatsService;
+
+    @Mock
+    private AppointmentOutbox appointmentOutbox;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private AppointmentBulkService appointmentBulkService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(appointmentBulkService, "batchSize", 1000);
+        ReflectionTestUtils.setField(appointmentBulkService, "maxItems", 50000);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class)).thenReturn(bulkOperations);
+    }
+
+    private static Appointment stored(String id, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setDoctorId("doc1");
+        appointment.setStatus(status);
+        appointment.setAppointmentDateTime(LocalDateTime.of(2026, 3, 2, 9, 0));
+        return appointment;
+    }
+
+    @Test
+    void updateStatuses_ShouldReportEachItemInRequestOrder() {
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class)))
+                .thenReturn(Arrays.asList(stored("a1", "CONFIRMED"), stored("a2", "CANCELLED")));
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+        when(appointmentService.updateAppointmentStatus("a2", "COMPLETED"))
+                .thenThrow(new SlotUnavailableException("Time slot not available"));
+
+        BulkResult result = appointmentBulkService.updateStatuses(Arrays.asList(
+                new StatusUpdate("a1", "COMPLETED"),
+                new StatusUpdate("a2", "COMPLETED"),
+                new StatusUpdate("missing", "COMPLETED"),
+                new StatusUpdate("a1", "DONE")));
+
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(Arrays.asList(BulkItemResult.UPDATED, BulkItemResult.CONFLICT,
+                        BulkItemResult.NOT_FOUND, BulkItemResult.INVALID),
+                result.getItems().stream().map(BulkItemResult::getResult).toList());
+        verify(bulkOperations, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(slotAvailabilityIndex).apply(argThat(a -> "a1".equals(a.getId()) && "COMPLETED".equals(a.getStatus())));
+    }
+
+    @Test
+    void updateStatuses_WithRepeatedId_ShouldApplyOnlyTheFirstChange() {
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(stored("a1", "CONFIRMED")));
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        BulkResult result = appointmentBulkService.updateStatuses(Arrays.asList(
+                new StatusUpdate("a1", "COMPLETED"),
+                new StatusUpdate("a1", "COMPLETED")));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(Arrays.asList(BulkItemResult.UPDATED, BulkItemResult.DUPLICATE),
+                result.getItems().stream().map(BulkItemResult::getResult).toList());
+        verify(bulkOperations, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(slotAvailabilityIndex, times(1)).apply(any());
+    }
+
+    @Test
+    void updateStatuses_WhenAnotherWriterSetTheSameStatus_ShouldNotCountIt() {
+        Appointment read = stored("a1", "CONFIRMED");
+        read.setVersion(3L);
+        Appointment completedElsewhere = stored("a1", "COMPLETED");
+        completedElsewhere.setVersion(4L);
+        completedElsewhere.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 8, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class)))
+                .thenReturn(List.of(read), List.of(completedElsewhere));
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+
+        BulkResult result = appointmentBulkService.updateStatuses(List.of(new StatusUpdate("a1", "COMPLETED")));
+
+        assertEquals(BulkItemResult.CONFLICT, result.getItems().get(0).getResult());
+        verify(slotAvailabilityIndex, never()).apply(any());
+        verify(appointmentStatsService).recordAll(List.of());
+    }
+
+    @Test
+    void importAppointments_ShouldReportTakenSlotsAndInsertTheRest() {
+        BulkWriteError taken = new BulkWriteError(11000,
+                "E11000 duplicate key error collection: appointments index: doctor_slot_unique", new BsonDocument(), 1);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk write failed",
+                new MongoBulkWriteException(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                        List.of(taken), null, new ServerAddress(), Set.of())));
+
+        Appointment first = stored(null, null);
+        Appointment second = stored(null, null);
+        Appointment invalid = new Appointment();
+
+        BulkResult result = appointmentBulkService.importAppointments(Arrays.asList(first, second, invalid));
+
+        assertEquals(BulkItemResult.INSERTED, result.getItems().get(0).getResult());
+        assertNotNull(result.getItems().get(0).getId());
+        assertEquals("PENDING", first.getStatus());
+        assertEquals(BulkItemResult.CONFLICT, result.getItems().get(1).getResult());
+        assertEquals("Time slot not available", result.getItems().get(1).getMessage());
+        assertEquals(BulkItemResult.INVALID, result.getItems().get(2).getResult());
+        verify(bulkOperations, times(2)).insert(any(Object.class));
+        verify(slotAvailabilityIndex).apply(first);
+        verify(slotAvailabilityIndex, never()).apply(second);
+    }
+}
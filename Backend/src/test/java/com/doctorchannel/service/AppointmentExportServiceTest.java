@@ -0,0 +1,106 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentExportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private AppointmentExportService appointmentExportService;
+
+    private Appointment first;
+    private Appointment second;
+
+    @BeforeEach
+    void setUp() {
+        first = new Appointment();
+        first.setId("apt1");
+        first.setPatientName("John Doe");
+        first.setAppointmentDateTime(LocalDateTime.of(2030, 1, 7, 9, 0));
+        first.setStatus("COMPLETED");
+
+        second = new Appointment();
+        second.setId("apt2");
+        second.setPatientName("Doe, \"Jane\"");
+        second.setStatus("COMPLETED");
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneDocumentPerLine() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Appointment.class))).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        appointmentExportService.exportNdjson(LocalDate.of(2030, 1, 1), null, "COMPLETED", out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("apt1", objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("2030-01-07T09:00:00", objectMapper.readTree(lines[0]).get("appointmentDateTime").asText());
+        assertEquals("apt2", objectMapper.readTree(lines[1]).get("id").asText());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Appointment.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("COMPLETED", filter.get("status"));
+        assertTrue(filter.containsKey("appointmentDateTime"));
+    }
+
+    @Test
+    void exportCsv_ShouldEscapeValues() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Appointment.class))).thenReturn(Stream.of(second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        appointmentExportService.exportCsv(null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,userId,doctorId,patientName"));
+        assertTrue(lines[1].startsWith("apt2,,,\"Doe, \"\"Jane\"\"\",,,,COMPLETED"));
+    }
+
+    @Test
+    void exportCsv_ShouldDefuseFormulaValues() throws Exception {
+        second.setPatientName("=HYPERLINK(\"http://evil\",\"x\")");
+        second.setSymptoms("@SUM(A1:A9)");
+        when(mongoTemplate.stream(any(Query.class), eq(Appointment.class))).thenReturn(Stream.of(second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        appointmentExportService.exportCsv(null, null, null, out);
+
+        String row = out.toString(StandardCharsets.UTF_8).split("\n")[1];
+        assertTrue(row.startsWith("apt2,,,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",,,,COMPLETED,'@SUM(A1:A9),"));
+    }
+}
@@ -1,6 +1,8 @@
 package com.doctorchannel.service;
 
+import com.doctorchannel.exception.SlotUnavailableException;
 import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.OutboxEvent;
 import com.doctorchannel.repository.AppointmentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,14 +10,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +33,21 @@ class AppointmentServiceTest {
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
+
+    @Mock
+    private AppointmentStatsService appointmentStatsService;
+
+    @Mock
+    private AppointmentOutbox appointmentOutbox;
+
+    @Mock
+    private WaitlistService waitlistService;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -31,6 +55,8 @@ class AppointmentServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(appointmentOutbox.inTransaction(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
         testAppointment = new Appointment();
         testAppointment.setId("apt123");
         testAppointment.setUserId("user123");
@@ -91,33 +117,123 @@ class AppointmentServiceTest {
     }
 
     @Test
-    void createAppointment_ShouldSaveAndReturnAppointment() {
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
+    void createAppointment_ShouldInsertAndReturnAppointment() {
+        when(appointmentRepository.insert(any(Appointment.class))).thenReturn(testAppointment);
 
         Appointment result = appointmentService.createAppointment(testAppointment);
 
         assertNotNull(result);
         assertEquals("John Doe", result.getPatientName());
-        verify(appointmentRepository, times(1)).save(any(Appointment.class));
+        verify(appointmentRepository, times(1)).insert(any(Appointment.class));
+        verify(slotAvailabilityIndex).markBooked(testAppointment);
+        verify(appointmentOutbox).record(OutboxEvent.APPOINTMENT_CREATED, testAppointment, null);
+    }
+
+    @Test
+    void createAppointment_WhenSlotAlreadyTaken_ShouldThrowSlotUnavailable() {
+        when(appointmentRepository.insert(any(Appointment.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThrows(SlotUnavailableException.class,
+                () -> appointmentService.createAppointment(testAppointment));
+        verify(slotAvailabilityIndex, never()).markBooked(any());
+        verify(appointmentOutbox, never()).record(any(), any(), any());
+        verify(bookingMetrics).conflict(BookingMetrics.STAGE_INSERT);
+        verify(bookingMetrics, never()).booked();
     }
 
     @Test
     void updateAppointmentStatus_ShouldUpdateAndReturnAppointment() {
-        when(appointmentRepository.findById("apt123")).thenReturn(Optional.of(testAppointment));
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
+        when(appointmentRepository.updateFieldsIf(eq("apt123"), isNull(), any(Criteria.class), any(Update.class)))
+                .thenReturn(Optional.of(testAppointment));
 
         Appointment result = appointmentService.updateAppointmentStatus("apt123", "CONFIRMED");
 
         assertNotNull(result);
-        verify(appointmentRepository, times(1)).save(any(Appointment.class));
+        assertEquals("CONFIRMED", result.getStatus());
+        assertEquals(1L, result.getVersion());
+        verify(appointmentStatsService).record(new AppointmentStatsService.Change(
+                "doc123", testAppointment.getAppointmentDateTime(), "PENDING", "CONFIRMED"));
+        verify(appointmentRepository, never()).findById(any());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(slotAvailabilityIndex).apply(testAppointment);
+    }
+
+    @Test
+    void updateAppointmentStatus_WhenVersionIsStale_ShouldThrowOptimisticLockingFailure() {
+        when(appointmentRepository.updateFieldsIf(eq("apt123"), eq(3L), isNull(), any(Update.class)))
+                .thenReturn(Optional.empty());
+        when(appointmentRepository.existsById("apt123")).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> appointmentService.updateAppointmentStatus("apt123", "CANCELLED", 3L));
+        verify(slotAvailabilityIndex, never()).apply(any());
+    }
+
+    @Test
+    void updateAppointmentStatus_WhenReactivatingIntoTakenSlot_ShouldThrowSlotUnavailable() {
+        testAppointment.setStatus("CANCELLED");
+        testAppointment.setVersion(2L);
+        when(appointmentRepository.updateFieldsIf(eq("apt123"), isNull(), any(Criteria.class), any(Update.class)))
+                .thenReturn(Optional.empty());
+        when(appointmentRepository.findById("apt123")).thenReturn(Optional.of(testAppointment));
+        when(appointmentRepository.updateFieldsIf(eq("apt123"), eq(2L), any(Criteria.class), any(Update.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThrows(SlotUnavailableException.class,
+                () -> appointmentService.updateAppointmentStatus("apt123", "CONFIRMED"));
+        verify(bookingMetrics).conflict(BookingMetrics.STAGE_STATUS_UPDATE);
+    }
+
+    @Test
+    void updateAppointmentStatus_WhenCancelling_ShouldOfferTheSlotToTheWaitlist() {
+        when(appointmentRepository.updateFieldsIf(eq("apt123"), isNull(), isNull(), any(Update.class)))
+                .thenReturn(Optional.of(testAppointment));
+
+        Appointment result = appointmentService.updateAppointmentStatus("apt123", "CANCELLED");
+
+        assertNull(result.getSlotStart());
+        verify(waitlistService).offer(result);
     }
 
     @Test
     void deleteAppointment_ShouldCallRepositoryDelete() {
-        doNothing().when(appointmentRepository).deleteById("apt123");
+        when(appointmentRepository.removeById("apt123")).thenReturn(Optional.of(testAppointment));
+
+        appointmentService.deleteAppointment("apt123");
+
+        verify(appointmentRepository, times(1)).removeById("apt123");
+        verify(appointmentOutbox).record(OutboxEvent.APPOINTMENT_DELETED, testAppointment, null);
+        verify(slotAvailabilityIndex).markFree(testAppointment);
+    }
+
+    @Test
+    void deleteAppointment_WhenAlreadyDeleted_ShouldHaveNoSideEffects() {
+        when(appointmentRepository.removeById("apt123")).thenReturn(Optional.empty());
 
         appointmentService.deleteAppointment("apt123");
 
-        verify(appointmentRepository, times(1)).deleteById("apt123");
+        verify(appointmentOutbox, never()).record(any(), any(), any());
+        verify(appointmentStatsService, never()).record(any());
+        verify(waitlistService, never()).offer(any());
+    }
+
+    @Test
+    void isSlotAvailable_WhenIndexAnswers_ShouldNotQueryRepository() {
+        LocalDateTime slot = testAppointment.getAppointmentDateTime();
+        when(slotAvailabilityIndex.isAvailable("doc123", slot)).thenReturn(Optional.of(false));
+
+        assertFalse(appointmentService.isSlotAvailable("doc123", slot));
+        verify(appointmentRepository, never()).findByDoctorIdAndAppointmentDateTimeBetween(any(), any(), any());
+    }
+
+    @Test
+    void isSlotAvailable_WhenIndexCannotAnswer_ShouldFallBackToRepository() {
+        LocalDateTime slot = testAppointment.getAppointmentDateTime();
+        when(slotAvailabilityIndex.isAvailable("doc123", slot)).thenReturn(Optional.empty());
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(eq("doc123"), any(), any()))
+                .thenReturn(Arrays.asList(testAppointment));
+
+        assertFalse(appointmentService.isSlotAvailable("doc123", slot));
     }
 }
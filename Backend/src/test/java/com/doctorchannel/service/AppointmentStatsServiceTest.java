@@ -0,0 +1,122 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.dto.DoctorLoadStats;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.model.DoctorDailyStats;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentStatsServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private AppointmentStatsService appointmentStatsService;
+
+    @Test
+    void recordAll_ShouldSendOneUpsertPerDoctorDayWithNetDeltas() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DoctorDailyStats.class)).thenReturn(bulkOperations);
+        LocalDateTime morning = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+        appointmentStatsService.recordAll(Arrays.asList(
+                new AppointmentStatsService.Change("doc1", morning, null, "PENDING"),
+                new AppointmentStatsService.Change("doc1", morning.plusHours(2), "PENDING", "CONFIRMED"),
+                new AppointmentStatsService.Change("doc1", morning.plusDays(1), "CONFIRMED", "CONFIRMED"),
+                new AppointmentStatsService.Change("doc2", morning, "PENDING", null)));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).upsert(queries.capture(), updates.capture());
+        assertEquals("doc1:2026-03-02", queries.getAllValues().get(0).getQueryObject().get("id"));
+        assertEquals(Map.of("counts.CONFIRMED", 1), updates.getAllValues().get(0).getUpdateObject().get("$inc"));
+        assertEquals(Map.of("counts.PENDING", -1), updates.getAllValues().get(1).getUpdateObject().get("$inc"));
+        // New rows are stamped, so a rebuild running meanwhile keeps them
+        assertTrue(updates.getAllValues().get(0).getUpdateObject().get("$setOnInsert", Document.class)
+                .get("rebuiltAt") instanceof Date);
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_ShouldOnlyRemoveRowsFromEarlierGenerations() {
+        MongoCollection<Document> appointments = mock(MongoCollection.class);
+        AggregateIterable<Document> aggregate = mock(AggregateIterable.class);
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("appointments"));
+        when(mongoTemplate.getCollection("appointments")).thenReturn(appointments);
+        when(appointments.aggregate(anyList())).thenReturn(aggregate);
+        when(aggregate.allowDiskUse(true)).thenReturn(aggregate);
+        when(mongoTemplate.remove(any(Query.class), eq(DoctorDailyStats.class))).thenReturn(DeleteResult.acknowledged(2));
+
+        appointmentStatsService.rebuild();
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(DoctorDailyStats.class));
+        Date started = removed.getValue().getQueryObject().get("rebuiltAt", Document.class).get("$lt", Date.class);
+        assertNotNull(started);
+        assertEquals(1, removed.getValue().getQueryObject().size());
+    }
+
+    @Test
+    void getDoctorStats_ShouldComputeUtilizationAndNoShowsFromDailyCounts() {
+        Doctor doctor = new Doctor();
+        doctor.setId("doc1");
+        doctor.setStartTime("09:00");
+        doctor.setEndTime("10:00");
+        doctor.setSlotDuration(15);
+        when(doctorService.getDoctorById("doc1")).thenReturn(Optional.of(doctor));
+        LocalDate past = LocalDate.now().minusDays(1);
+        LocalDate future = LocalDate.now().plusDays(1);
+        when(mongoTemplate.find(any(Query.class), eq(DoctorDailyStats.class))).thenReturn(List.of(
+                new DoctorDailyStats("doc1:" + past, "doc1", past, Map.of("COMPLETED", 2, "CONFIRMED", 1, "CANCELLED", 1), null),
+                new DoctorDailyStats("doc1:" + future, "doc1", future, Map.of("PENDING", 1), null)));
+
+        DoctorLoadStats stats = appointmentStatsService.getDoctorStats("doc1", past, future);
+
+        assertEquals(4, stats.getBooked());
+        assertEquals(12, stats.getCapacity());
+        assertEquals(4.0 / 12, stats.getUtilization(), 1e-9);
+        assertEquals(1, stats.getNoShows());
+        assertEquals(1.0 / 3, stats.getNoShowRate(), 1e-9);
+        assertEquals(Integer.valueOf(1), stats.getCounts().get("CANCELLED"));
+        assertEquals(2, stats.getDays().size());
+    }
+}
@@ -0,0 +1,94 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.config.CacheConfig;
+import com.doctorchannel.model.Doctor;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeStreamInvalidatorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @Mock
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @InjectMocks
+    private ChangeStreamInvalidator invalidator;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.DOCTORS, CacheConfig.DOCTOR_PAGES);
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        ReflectionTestUtils.setField(invalidator, "cacheManager", cacheManager);
+    }
+
+    @Test
+    void onDoctorChange_ShouldEvictCachesAndRefreshSearchIndex() {
+        cacheManager.getCache(CacheConfig.DOCTORS).put("doc1", "stale");
+        cacheManager.getCache(CacheConfig.DOCTOR_PAGES).put("page0", "stale");
+
+        invalidator.onDoctorChange(OperationType.UPDATE, "doc1", new Document("_id", "doc1").append("name", "Dr. Silva"));
+
+        assertNull(cacheManager.getCache(CacheConfig.DOCTORS).get("doc1"));
+        assertNull(cacheManager.getCache(CacheConfig.DOCTOR_PAGES).get("page0"));
+        verify(slotAvailabilityIndex).evictDoctor("doc1");
+        verify(doctorSearchIndex).put(argThat((Doctor doctor) -> "Dr. Silva".equals(doctor.getName())));
+
+        invalidator.onDoctorChange(OperationType.DELETE, "doc1", null);
+
+        verify(doctorSearchIndex).remove("doc1");
+    }
+
+    @Test
+    void onAppointmentChange_ShouldEvictTheDayFromFullDocumentOrPreImage() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Document appointment = new Document("_id", "a1").append("doctor_id", "doc1")
+                .append("appointment_date_time", Date.from(tomorrow.atTime(9, 0).atZone(ZoneId.systemDefault()).toInstant()));
+
+        invalidator.onAppointmentChange(appointment, null);
+        invalidator.onAppointmentChange(null, appointment);
+
+        verify(slotAvailabilityIndex, times(2)).evictDay("doc1", tomorrow);
+
+        // A delete with no pre-image: the whole index is rebuilt once the stream goes quiet
+        invalidator.onAppointmentChange(null, null);
+
+        assertTrue((Boolean) ReflectionTestUtils.getField(invalidator, "slotIndexStale"));
+        verifyNoMoreInteractions(slotAvailabilityIndex);
+    }
+}
@@ -0,0 +1,90 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorSearchIndexTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @InjectMocks
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(doctorRepository.findAll()).thenReturn(Arrays.asList(
+                doctor("d1", "Dr. John Smith", "Cardiologist", "Kalmunai"),
+                doctor("d2", "Dr. Emily Rodriguez", "Pediatric Cardiology", "Colombo"),
+                doctor("d3", "Dr. Michael Chen", "Dermatologist", "Kandy")));
+        doctorSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsCaseInsensitively() {
+        assertEquals(Arrays.asList("d1"), ids(doctorSearchIndex.search(DoctorSearchIndex.Field.NAME, "SMITH")));
+        assertEquals(Arrays.asList("d3"), ids(doctorSearchIndex.search(DoctorSearchIndex.Field.CITY, "kan")));
+        assertTrue(doctorSearchIndex.search(DoctorSearchIndex.Field.CITY, "Jaffna").isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankPrefixMatchesFirst() {
+        assertEquals(Arrays.asList("d1", "d2"), ids(doctorSearchIndex.search(DoctorSearchIndex.Field.SPECIALTY, "cardio")));
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldStillMatch() {
+        assertEquals(Arrays.asList("d3", "d1"), ids(doctorSearchIndex.search(DoctorSearchIndex.Field.CITY, "ka")));
+    }
+
+    @Test
+    void putAndRemove_ShouldUpdateIndexIncrementally() {
+        doctorSearchIndex.put(doctor("d1", "Dr. John Smith", "Neurologist", "Kalmunai"));
+        doctorSearchIndex.remove("d2");
+
+        assertTrue(doctorSearchIndex.search(DoctorSearchIndex.Field.SPECIALTY, "cardio").isEmpty());
+        assertEquals(Arrays.asList("d1"), ids(doctorSearchIndex.search(DoctorSearchIndex.Field.SPECIALTY, "neuro")));
+    }
+
+    @Test
+    void rebuild_ShouldNotBringBackDoctorsRemovedWhileItLoads() {
+        when(doctorRepository.findAll()).thenAnswer(invocation -> {
+            doctorSearchIndex.remove("d2");
+            return Arrays.asList(
+                    doctor("d1", "Dr. John Smith", "Cardiologist", "Kalmunai"),
+                    doctor("d2", "Dr. Emily Rodriguez", "Pediatric Cardiology", "Colombo"));
+        });
+
+        doctorSearchIndex.rebuild();
+
+        assertEquals(Arrays.asList("d1"), ids(doctorSearchIndex.search(DoctorSearchIndex.Field.SPECIALTY, "cardio")));
+        assertTrue(doctorSearchIndex.search(DoctorSearchIndex.Field.CITY, "kandy").isEmpty());
+    }
+
+    private static List<String> ids(List<Doctor> doctors) {
+        return doctors.stream().map(Doctor::getId).collect(Collectors.toList());
+    }
+
+    private static Doctor doctor(String id, String name, String specialty, String city) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setName(name);
+        doctor.setSpecialty(specialty);
+        doctor.setCity(city);
+        return doctor;
+    }
+}
@@ -0,0 +1,96 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.config.CacheConfig;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(classes = {CacheConfig.class, DoctorService.class})
+class DoctorServiceCachingTest {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private DoctorRepository doctorRepository;
+
+    @MockBean
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @MockBean
+    private DoctorSearchIndex doctorSearchIndex;
+
+    private Doctor testDoctor;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        testDoctor = new Doctor();
+        testDoctor.setId("doc123");
+        testDoctor.setName("Dr. John Smith");
+    }
+
+    @Test
+    void getDoctorById_ShouldHitRepositoryOnce() {
+        when(doctorRepository.findById("doc123")).thenReturn(Optional.of(testDoctor));
+
+        assertEquals("Dr. John Smith", doctorService.getDoctorById("doc123").get().getName());
+        assertEquals("Dr. John Smith", doctorService.getDoctorById("doc123").get().getName());
+
+        verify(doctorRepository, times(1)).findById("doc123");
+    }
+
+    @Test
+    void getDoctorById_ShouldNotCacheMissingDoctor() {
+        when(doctorRepository.findById("invalid")).thenReturn(Optional.empty());
+
+        assertFalse(doctorService.getDoctorById("invalid").isPresent());
+        assertFalse(doctorService.getDoctorById("invalid").isPresent());
+
+        verify(doctorRepository, times(2)).findById("invalid");
+    }
+
+    @Test
+    void updateDoctor_ShouldEvictCachedProfile() {
+        when(doctorRepository.findById("doc123")).thenReturn(Optional.of(testDoctor));
+        when(doctorRepository.updateFields(eq("doc123"), any(), any(Update.class))).thenReturn(Optional.of(testDoctor));
+
+        doctorService.getDoctorById("doc123");
+        doctorService.updateDoctor("doc123", testDoctor);
+        doctorService.getDoctorById("doc123");
+
+        // One lookup per cache fill
+        verify(doctorRepository, times(2)).findById("doc123");
+    }
+
+    @Test
+    void createDoctor_ShouldEvictDoctorLists() {
+        when(doctorRepository.findAll()).thenReturn(List.of(testDoctor));
+        when(doctorRepository.save(any(Doctor.class))).thenReturn(testDoctor);
+
+        doctorService.getAllDoctors();
+        doctorService.getAllDoctors();
+        doctorService.createDoctor(new Doctor());
+        doctorService.getAllDoctors();
+
+        verify(doctorRepository, times(2)).findAll();
+    }
+}
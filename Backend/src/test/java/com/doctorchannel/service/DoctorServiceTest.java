@@ -23,6 +23,12 @@ class DoctorServiceTest {
     @Mock
     private DoctorRepository doctorRepository;
 
+    @Mock
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Mock
+    private DoctorSearchIndex doctorSearchIndex;
+
     @InjectMocks
     private DoctorService doctorService;
 
@@ -109,6 +115,17 @@ class DoctorServiceTest {
         assertEquals("Kalmunai", result.get(0).getCity());
     }
 
+    @Test
+    void searchDoctorsByName_WhenIndexReady_ShouldNotQueryRepository() {
+        when(doctorSearchIndex.isReady()).thenReturn(true);
+        when(doctorSearchIndex.search(DoctorSearchIndex.Field.NAME, "smith")).thenReturn(Arrays.asList(testDoctor));
+
+        List<Doctor> result = doctorService.searchDoctorsByName("smith");
+
+        assertEquals(1, result.size());
+        verify(doctorRepository, never()).findByNameContainingIgnoreCase(any());
+    }
+
     @Test
     void deleteDoctor_ShouldCallRepositoryDelete() {
         doNothing().when(doctorRepository).deleteById("doc123");
@@ -116,5 +133,6 @@ class DoctorServiceTest {
         doctorService.deleteDoctor("doc123");
 
         verify(doctorRepository, times(1)).deleteById("doc123");
+        verify(doctorSearchIndex).remove("doc123");
     }
 }
@@ -0,0 +1,55 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginRateLimiterTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimiter, "window", "1m");
+        ReflectionTestUtils.setField(rateLimiter, "perEmail", 3);
+        ReflectionTestUtils.setField(rateLimiter, "perIp", 5);
+        ReflectionTestUtils.setField(rateLimiter, "maxTrackedKeys", 1000L);
+        rateLimiter.init();
+    }
+
+    @Test
+    void acquire_ShouldRejectEmailPastLimitIgnoringCase() {
+        rateLimiter.acquire("john@example.com", "10.0.0.1");
+        rateLimiter.acquire("JOHN@example.com", "10.0.0.2");
+        rateLimiter.acquire(" john@example.com", "10.0.0.3");
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> rateLimiter.acquire("john@example.com", "10.0.0.4"));
+        assertEquals(60, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.rate_limited").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void acquire_ShouldRejectIpPastLimitAcrossEmails() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> rateLimiter.acquire("other@example.com", "10.0.0.1"));
+        rateLimiter.acquire("other@example.com", "10.0.0.2");
+    }
+}
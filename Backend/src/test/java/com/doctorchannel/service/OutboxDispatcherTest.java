@@ -0,0 +1,99 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private OutboxDispatcher outboxDispatcher;
+
+    private final List<String> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxDispatcher, "maxAttempts", 10);
+        ReflectionTestUtils.setField(outboxDispatcher, "retryBackoff", "5s");
+        ReflectionTestUtils.setField(outboxDispatcher, "maxRetryBackoff", "30m");
+    }
+
+    private void sinkFailingOn(String failingId) {
+        NotificationSink sink = new NotificationSink() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public void deliver(OutboxEvent event) throws IOException {
+                if (event.getId().equals(failingId)) {
+                    throw new IOException("smtp down");
+                }
+                delivered.add(event.getId());
+            }
+        };
+        ReflectionTestUtils.setField(outboxDispatcher, "sinks", List.of(sink));
+    }
+
+    private static OutboxEvent event(String id, String appointmentId, long sequence) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAppointmentId(appointmentId);
+        event.setDoctorId("doc1");
+        event.setSequence(sequence);
+        event.setStatus(OutboxEvent.PENDING);
+        return event;
+    }
+
+    @Test
+    void deliverInOrder_ShouldFollowSequenceAndHoldBackEventsAfterAFailure() {
+        sinkFailingOn("a1-v1");
+
+        outboxDispatcher.deliverInOrder(new ArrayList<>(Arrays.asList(
+                event("a1-v2", "a1", 2), event("a2-v1", "a2", 1), event("a1-v1", "a1", 1), event("a2-v0", "a2", 0))));
+
+        assertEquals(List.of("a2-v0", "a2-v1"), delivered);
+        verify(mongoTemplate).updateFirst(any(Query.class),
+                argThat((Update update) -> update.getUpdateObject().get("$set", org.bson.Document.class).get("attempts").equals(1)),
+                eq(OutboxEvent.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+        assertEquals(2.0, meterRegistry.counter("outbox.events.delivered").count());
+    }
+
+    @Test
+    void backoff_ShouldDoublePerAttemptUpToTheCap() {
+        assertEquals(Duration.ofSeconds(5), outboxDispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(40), outboxDispatcher.backoff(4));
+        assertEquals(Duration.ofMinutes(30), outboxDispatcher.backoff(15));
+    }
+}
@@ -0,0 +1,83 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "retryAfterSeconds", 2L);
+        passwordHashingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void matches_ShouldVerifyOnHashingPool() throws Exception {
+        when(passwordEncoder.matches("secret", "hash")).thenAnswer(inv -> Thread.currentThread().getName()
+                .startsWith("password-hashing-"));
+
+        assertTrue(passwordHashingService.matches("secret", "hash").get(5, TimeUnit.SECONDS));
+        assertFalse(passwordHashingService.matches(null, "hash").get());
+    }
+
+    @Test
+    void matches_WhenPoolAndQueueFull_ShouldRejectWith429() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(passwordEncoder.matches(any(), any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = passwordHashingService.matches("a", "hash");
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = passwordHashingService.matches("b", "hash");
+        assertEquals(1, passwordHashingService.queueDepth());
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> passwordHashingService.matches("c", "hash"));
+        assertEquals(2, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
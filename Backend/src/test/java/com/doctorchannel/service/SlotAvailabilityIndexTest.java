@@ -0,0 +1,126 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import com.doctorchannel.repository.AppointmentRepository;
+import com.doctorchannel.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotAvailabilityIndexTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @InjectMocks
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    private LocalDate monday;
+    private Appointment booked;
+
+    @BeforeEach
+    void setUp() {
+        Doctor doctor = new Doctor();
+        doctor.setId("doc123");
+        doctor.setAvailableDays(Arrays.asList("Monday", "Wednesday"));
+        doctor.setStartTime("09:00");
+        doctor.setEndTime("12:00");
+        doctor.setSlotDuration(30);
+        when(doctorRepository.findById("doc123")).thenReturn(Optional.of(doctor));
+
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        booked = new Appointment();
+        booked.setDoctorId("doc123");
+        booked.setAppointmentDateTime(monday.atTime(9, 30));
+        booked.setStatus("PENDING");
+    }
+
+    @Test
+    void isAvailable_ShouldLoadDayOnceAndAnswerFromBitmap() {
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(eq("doc123"), any(), any()))
+                .thenReturn(Collections.singletonList(booked));
+
+        assertEquals(Optional.of(false), slotAvailabilityIndex.isAvailable("doc123", monday.atTime(9, 45)));
+        assertEquals(Optional.of(true), slotAvailabilityIndex.isAvailable("doc123", monday.atTime(10, 0)));
+
+        verify(appointmentRepository, times(1))
+                .findByDoctorIdAndAppointmentDateTimeBetween(eq("doc123"), any(), any());
+    }
+
+    @Test
+    void isAvailable_OutsideSchedule_ShouldNotAnswer() {
+        LocalDateTime tuesday = monday.plusDays(1).atTime(10, 0);
+
+        assertEquals(Optional.empty(), slotAvailabilityIndex.isAvailable("doc123", monday.atTime(12, 0)));
+        assertEquals(Optional.empty(), slotAvailabilityIndex.isAvailable("doc123", tuesday));
+    }
+
+    @Test
+    void apply_ShouldFollowBookingAndCancellation() {
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(eq("doc123"), any(), any()))
+                .thenReturn(Collections.emptyList());
+        LocalDateTime slot = booked.getAppointmentDateTime();
+        assertEquals(Optional.of(true), slotAvailabilityIndex.isAvailable("doc123", slot));
+
+        slotAvailabilityIndex.apply(booked);
+        assertEquals(Optional.of(false), slotAvailabilityIndex.isAvailable("doc123", slot));
+
+        booked.setStatus("CANCELLED");
+        slotAvailabilityIndex.apply(booked);
+        assertEquals(Optional.of(true), slotAvailabilityIndex.isAvailable("doc123", slot));
+    }
+
+    @Test
+    void rebuild_ShouldKeepCancellationMadeWhileReadingSnapshot() {
+        ReflectionTestUtils.setField(slotAvailabilityIndex, "warmupDays", 14);
+        Doctor doctor = doctorRepository.findById("doc123").orElseThrow();
+        when(doctorRepository.findAll()).thenReturn(Collections.singletonList(doctor));
+        Appointment cancelled = new Appointment();
+        cancelled.setDoctorId("doc123");
+        cancelled.setAppointmentDateTime(booked.getAppointmentDateTime());
+        cancelled.setStatus("CANCELLED");
+        // The snapshot still has the booking; the cancellation lands while it is being read
+        when(appointmentRepository.findByAppointmentDateTimeBetween(any(), any())).thenAnswer(invocation -> {
+            slotAvailabilityIndex.apply(cancelled);
+            return Collections.singletonList(booked);
+        });
+
+        slotAvailabilityIndex.rebuild();
+
+        assertEquals(Optional.of(true), slotAvailabilityIndex.isAvailable("doc123", booked.getAppointmentDateTime()));
+        verify(appointmentRepository, never()).findByDoctorIdAndAppointmentDateTimeBetween(any(), any(), any());
+    }
+
+    @Test
+    void isAvailable_ForUnknownDoctor_ShouldNotCacheIt() {
+        when(doctorRepository.findById("ghost")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), slotAvailabilityIndex.isAvailable("ghost", booked.getAppointmentDateTime()));
+        assertEquals(Optional.empty(), slotAvailabilityIndex.isAvailable("ghost", booked.getAppointmentDateTime()));
+        verify(doctorRepository, times(2)).findById("ghost");
+        assertEquals(Optional.of(true), slotAvailabilityIndex.isAvailable("doc123", monday.atTime(11, 0)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.Doctor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private SlotService slotService;
+
+    private Doctor testDoctor;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        testDoctor = new Doctor();
+        testDoctor.setId("doc123");
+        testDoctor.setAvailableDays(Arrays.asList("Monday", "Tuesday"));
+        testDoctor.setStartTime("09:00");
+        testDoctor.setEndTime("10:00");
+        testDoctor.setSlotDuration(15);
+
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void forEachFreeSlot_ShouldSkipBookedSlotsAndNonWorkingDays() {
+        Appointment booked = new Appointment();
+        booked.setAppointmentDateTime(monday.atTime(9, 15));
+        Appointment nextDay = new Appointment();
+        nextDay.setAppointmentDateTime(monday.plusDays(1).atTime(9, 50));
+        when(mongoTemplate.stream(any(Query.class), eq(Appointment.class)))
+                .thenReturn(Stream.of(booked, nextDay));
+
+        List<LocalDateTime> slots = new ArrayList<>();
+        slotService.forEachFreeSlot(testDoctor, monday, monday.plusDays(2), slots::add);
+
+        assertEquals(Arrays.asList(
+                monday.atTime(9, 0), monday.atTime(9, 30), monday.atTime(9, 45),
+                monday.plusDays(1).atTime(9, 0), monday.plusDays(1).atTime(9, 15), monday.plusDays(1).atTime(9, 30)
+        ), slots);
+        verify(mongoTemplate, times(1)).stream(any(Query.class), eq(Appointment.class));
+    }
+
+    @Test
+    void forEachFreeSlot_WithoutSchedule_ShouldNotQuery() {
+        testDoctor.setStartTime(null);
+
+        List<LocalDateTime> slots = new ArrayList<>();
+        slotService.forEachFreeSlot(testDoctor, monday, monday, slots::add);
+
+        assertTrue(slots.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,70 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.model.Appointment;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotStartBackfillTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private SlotStartBackfill slotStartBackfill;
+
+    private static Appointment legacy(String id) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setDoctorId("doc1");
+        appointment.setAppointmentDateTime(LocalDateTime.of(2030, 1, 7, 9, 10));
+        return appointment;
+    }
+
+    @Test
+    void backfill_ShouldSetSlotStartsAndLogDoubleBookingsInsteadOfFailing() {
+        ReflectionTestUtils.setField(slotStartBackfill, "batchSize", 1000);
+        when(mongoTemplate.stream(any(Query.class), eq(Appointment.class)))
+                .thenReturn(Stream.of(legacy("a1"), legacy("a2")));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class)).thenReturn(bulkOperations);
+        when(slotAvailabilityIndex.slotStart(eq("doc1"), any())).thenReturn(LocalDateTime.of(2030, 1, 7, 9, 0));
+        BulkWriteError taken = new BulkWriteError(11000, "E11000 duplicate key error index: doctor_slot_unique",
+                new BsonDocument(), 1);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk write failed",
+                new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()),
+                        List.of(taken), null, new ServerAddress(), Set.of())));
+
+        assertEquals(1, slotStartBackfill.backfill());
+        verify(bulkOperations, times(2)).updateOne(any(Query.class), any(Update.class));
+    }
+}
@@ -0,0 +1,114 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.config.JwtConfig;
+import com.doctorchannel.dto.TokenPair;
+import com.doctorchannel.model.User;
+import com.doctorchannel.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    private static final JwtConfig JWT_CONFIG = new JwtConfig();
+    private static final SecretKey KEY = JWT_CONFIG.jwtSigningKey("test-signing-secret-that-is-long-enough-1234");
+
+    @Spy
+    private JwtEncoder jwtEncoder = JWT_CONFIG.jwtEncoder(KEY);
+
+    @Spy
+    private SecretKey jwtSigningKey = KEY;
+
+    @Spy
+    private TokenRevocationList revocationList = new TokenRevocationList();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TokenService tokenService;
+
+    private JwtDecoder accessTokenDecoder;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenService, "issuer", "doctor-channeling");
+        ReflectionTestUtils.setField(tokenService, "accessTokenTtl", "15m");
+        ReflectionTestUtils.setField(tokenService, "refreshTokenTtl", "7d");
+        tokenService.init();
+        accessTokenDecoder = JWT_CONFIG.jwtDecoder(KEY, revocationList, "doctor-channeling");
+
+        testUser = new User();
+        testUser.setId("user123");
+        testUser.setEmail("john@example.com");
+        testUser.setRole("ADMIN");
+        testUser.setIsActive(true);
+    }
+
+    @Test
+    void issue_ShouldProduceAccessTokenValidWithoutUserLookup() {
+        TokenPair tokens = tokenService.issue(testUser);
+
+        Jwt jwt = accessTokenDecoder.decode(tokens.getAccessToken());
+        assertEquals("user123", jwt.getSubject());
+        assertEquals(List.of("ADMIN"), jwt.getClaimAsStringList(JwtConfig.ROLES_CLAIM));
+        assertEquals(900, tokens.getExpiresIn());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void accessDecoder_ShouldRejectRefreshToken() {
+        TokenPair tokens = tokenService.issue(testUser);
+
+        assertThrows(JwtException.class, () -> accessTokenDecoder.decode(tokens.getRefreshToken()));
+    }
+
+    @Test
+    void refresh_ShouldRotateAndRevokePresentedToken() {
+        when(userRepository.findById("user123")).thenReturn(Optional.of(testUser));
+        TokenPair tokens = tokenService.issue(testUser);
+
+        Optional<TokenPair> refreshed = tokenService.refresh(tokens.getRefreshToken());
+
+        assertTrue(refreshed.isPresent());
+        assertNotNull(accessTokenDecoder.decode(refreshed.get().getAccessToken()));
+        assertTrue(tokenService.refresh(tokens.getRefreshToken()).isEmpty());
+    }
+
+    @Test
+    void refresh_WhenUserDeactivated_ShouldFail() {
+        TokenPair tokens = tokenService.issue(testUser);
+        testUser.setIsActive(false);
+        when(userRepository.findById("user123")).thenReturn(Optional.of(testUser));
+
+        assertTrue(tokenService.refresh(tokens.getRefreshToken()).isEmpty());
+    }
+
+    @Test
+    void revoke_ShouldMakeAccessTokenInvalid() {
+        TokenPair tokens = tokenService.issue(testUser);
+        Jwt jwt = accessTokenDecoder.decode(tokens.getAccessToken());
+
+        tokenService.revoke(jwt);
+
+        assertThrows(JwtException.class, () -> accessTokenDecoder.decode(tokens.getAccessToken()));
+    }
+}
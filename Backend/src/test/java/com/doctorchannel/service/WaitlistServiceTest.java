@@ -0,0 +1,108 @@
+package com.doctorchannel.service;
+
+import com.doctorchannel.exception.SlotUnavailableException;
+import com.doctorchannel.model.Appointment;
+import com.doctorchannel.model.WaitlistEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ObjectProvider<AppointmentService> appointmentServiceProvider;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private final LocalDateTime slot = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    private WaitlistEntry head;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(waitlistService, "appointmentService", appointmentServiceProvider);
+        ReflectionTestUtils.setField(waitlistService, "enabled", true);
+        when(appointmentServiceProvider.getObject()).thenReturn(appointmentService);
+        head = new WaitlistEntry();
+        head.setId("w1");
+        head.setDoctorId("doc123");
+        head.setDay(slot.toLocalDate());
+        head.setUserId("user123");
+        head.setPatientName("John Doe");
+        head.setStatus(WaitlistEntry.ASSIGNING);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(WaitlistEntry.class))).thenReturn(head);
+    }
+
+    @Test
+    void assign_ShouldClaimHeadOfQueueAndBookTheFreedSlot() {
+        when(appointmentService.createAppointment(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            appointment.setId("apt456");
+            return appointment;
+        });
+
+        Optional<WaitlistEntry> assigned = waitlistService.assign("doc123", slot);
+
+        assertTrue(assigned.isPresent());
+        assertEquals("apt456", assigned.get().getAppointmentId());
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(claim.capture(), any(Update.class), any(FindAndModifyOptions.class),
+                eq(WaitlistEntry.class));
+        assertEquals(WaitlistEntry.WAITING, claim.getValue().getQueryObject().get("status"));
+        assertEquals(new Document("priority", -1).append("createdAt", 1), claim.getValue().getSortObject());
+        verify(appointmentService).createAppointment(argThat(appointment -> "user123".equals(appointment.getUserId())
+                && slot.equals(appointment.getAppointmentDateTime()) && "John Doe".equals(appointment.getPatientName())));
+        verify(mongoTemplate).updateFirst(any(Query.class),
+                argThat(update -> WaitlistEntry.ASSIGNED.equals(update.getUpdateObject().get("$set", Document.class).get("status"))),
+                eq(WaitlistEntry.class));
+        assertEquals(1.0, meterRegistry.counter("waitlist.assigned").count());
+    }
+
+    @Test
+    void assign_WhenSlotWasBookedDirectly_ShouldPutHeadBackInTheQueue() {
+        when(appointmentService.createAppointment(any(Appointment.class)))
+                .thenThrow(new SlotUnavailableException("Time slot not available"));
+
+        Optional<WaitlistEntry> assigned = waitlistService.assign("doc123", slot);
+
+        assertTrue(assigned.isEmpty());
+        verify(mongoTemplate).updateFirst(any(Query.class),
+                argThat(update -> WaitlistEntry.WAITING.equals(update.getUpdateObject().get("$set", Document.class).get("status"))),
+                eq(WaitlistEntry.class));
+        assertEquals(1.0, meterRegistry.counter("waitlist.assignment.conflicts").count());
+    }
+}
@@ -23,4 +23,39 @@ api.interceptors.request.use(
   }
 );
 
+// Response interceptor: on 401, swap the refresh token for a new pair once and retry
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (error.response && error.response.status === 401 && original && !original._retried
+        && user && user.refreshToken && !original.url.startsWith('/auth/')) {
+      original._retried = true;
+      try {
+        const { data } = await axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken: user.refreshToken });
+        localStorage.setItem('user', JSON.stringify({ ...user, token: data.token, refreshToken: data.refreshToken }));
+        original.headers.Authorization = `Bearer ${data.token}`;
+        return api(original);
+      } catch (refreshError) {
+        localStorage.removeItem('user');
+      }
+    }
+    return Promise.reject(error);
+  }
+);
+
+// List endpoints return one page at a time and put the next page's cursor in X-Next-Cursor;
+// follow it until the last page to get the whole list
+export const getAllPages = async (url, params = {}) => {
+  const items = [];
+  let after;
+  do {
+    const response = await api.get(url, { params: { ...params, after } });
+    items.push(...response.data);
+    after = response.headers['x-next-cursor'];
+  } while (after);
+  return items;
+};
+
 export default api;
@@ -1,10 +1,7 @@
-import api from './api';
+import api, { getAllPages } from './api';
 
 export const appointmentService = {
-  getAllAppointments: async () => {
-    const response = await api.get('/appointments');
-    return response.data;
-  },
+  getAllAppointments: () => getAllPages('/appointments'),
 
   getAppointmentById: async (id) => {
     const response = await api.get(`/appointments/${id}`);
@@ -4,7 +4,8 @@ export const authService = {
   login: async (email, password) => {
     const response = await api.post('/auth/login', { email, password });
     if (response.data.success) {
-      localStorage.setItem('user', JSON.stringify(response.data.user));
+      const { user, token, refreshToken } = response.data;
+      localStorage.setItem('user', JSON.stringify({ ...user, token, refreshToken }));
     }
     return response.data;
   },
@@ -14,8 +15,18 @@ export const authService = {
     return response.data;
   },
 
-  logout: () => {
+  logout: async () => {
+    const user = authService.getCurrentUser();
     localStorage.removeItem('user');
+    if (user && user.token) {
+      try {
+        await api.post('/auth/logout', { refreshToken: user.refreshToken }, {
+          headers: { Authorization: `Bearer ${user.token}` }
+        });
+      } catch (e) {
+        // The tokens expire on their own; nothing else to clean up
+      }
+    }
   },
 
   getCurrentUser: () => {
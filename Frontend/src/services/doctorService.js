@@ -1,16 +1,20 @@
-import api from './api';
+import api, { getAllPages } from './api';
 
 export const doctorService = {
-  getAllDoctors: async () => {
-    const response = await api.get('/doctors');
-    return response.data;
-  },
+  getAllDoctors: () => getAllPages('/doctors'),
 
   getDoctorById: async (id) => {
     const response = await api.get(`/doctors/${id}`);
     return response.data;
   },
 
+  getFreeSlots: async (id, from, to) => {
+    const response = await api.get(`/doctors/${id}/slots`, {
+      params: { from, to }
+    });
+    return response.data;
+  },
+
   searchBySpecialty: async (specialty) => {
     const response = await api.get('/doctors/search/specialty', {
       params: { specialty }
@@ -32,6 +36,12 @@ export const doctorService = {
     return response.data;
   },
 
+  // criteria: { specialty, city, active, minFee, maxFee, availableDays: [] }
+  searchDoctors: ({ availableDays, ...criteria } = {}) =>
+    getAllPages('/doctors/search', {
+      ...criteria, availableDays: availableDays?.length ? availableDays.join(',') : undefined
+    }),
+
   createDoctor: async (doctorData) => {
     const response = await api.post('/doctors', doctorData);
     return response.data;